@@ -0,0 +1,229 @@
+package cs3500.reversi;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * A small benchmark harness: times each benchmark over a few warmup iterations and then a few
+ * measured ones, reports the average time per operation, and writes the results as JSON in the
+ * same shape JMH uses, so they can be kept and compared over time with the usual tools.
+ * Operations give back a number that's added up and published at the end, so the JIT can't
+ * throw the work away.
+ */
+final class BenchmarkRunner {
+  /**
+   * One timed operation.
+   */
+  interface Op {
+    /**
+     * Does the operation once.
+     * @return anything computed by it, so it can't be skipped.
+     */
+    long run();
+  }
+
+  // how many iterations to warm up and measure, and how long each one lasts.
+  private static final int WARMUP_ITERATIONS = 3;
+  private static final int MEASURE_ITERATIONS = 5;
+  private static final long ITERATION_NANOS = 200_000_000L;
+  // how long to run operations between checks of the clock, so fast ones aren't timing the clock.
+  private static final long BATCH_NANOS = 100_000L;
+  // the t-value for a 99.9% confidence interval over MEASURE_ITERATIONS - 1 degrees of freedom.
+  private static final double T_999 = 8.610;
+
+  // where the results of every operation end up.
+  static volatile long sink;
+
+  private final List<Case> cases = new ArrayList<>();
+  private final List<Result> results = new ArrayList<>();
+
+  /**
+   * Adds a benchmark.
+   * @param name   the benchmark's name
+   * @param params what it's run on, shown next to the name
+   * @param setup  makes the operation, with any state it needs; only called when it's run
+   */
+  void add(String name, Map<String, String> params, Supplier<Op> setup) {
+    cases.add(new Case(name, new LinkedHashMap<>(params), setup));
+  }
+
+  /**
+   * Runs every benchmark whose name and params match a filter, printing each result.
+   * @param filter which benchmarks to run, found anywhere in their label
+   */
+  void run(Pattern filter) {
+    for (Case c : cases) {
+      String label = c.label();
+      if (!filter.matcher(label).find()) {
+        continue;
+      }
+      Op op = c.setup.get();
+      long batch = 1;
+      for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+        double nanos = iteration(op, batch);
+        // settle on enough operations per check of the clock once they're warmed up.
+        batch = Math.max(1, (long) (BATCH_NANOS / Math.max(1, nanos)));
+      }
+      double[] raw = new double[MEASURE_ITERATIONS];
+      for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+        raw[i] = iteration(op, batch);
+      }
+      Result result = new Result(c, raw);
+      results.add(result);
+      System.out.printf(Locale.ROOT, "%-68s %14.1f +- %12.1f ns/op%n", label, result.mean(),
+              result.error());
+    }
+  }
+
+  /**
+   * Runs an operation over and over for one iteration.
+   * @param op    the operation
+   * @param batch how many times to run it between checks of the clock
+   * @return the average time it took, in nanoseconds.
+   */
+  private static double iteration(Op op, long batch) {
+    long sum = 0;
+    long ops = 0;
+    long start = System.nanoTime();
+    long now = start;
+    while (now - start < ITERATION_NANOS) {
+      for (long i = 0; i < batch; i++) {
+        sum += op.run();
+      }
+      ops += batch;
+      now = System.nanoTime();
+    }
+    sink += sum;
+    return (double) (now - start) / ops;
+  }
+
+  /**
+   * Writes every result so far as JSON, like JMH's "-rf json".
+   * @param file where to write them; replaced if it already exists.
+   * @throws IOException if the file can't be written.
+   */
+  void writeJson(Path file) throws IOException {
+    try (Writer out = Files.newBufferedWriter(file)) {
+      out.write("[\n");
+      for (int i = 0; i < results.size(); i++) {
+        Result r = results.get(i);
+        out.write("  {\n");
+        out.write("    \"benchmark\" : " + quote(r.c.name) + ",\n");
+        out.write("    \"mode\" : \"avgt\",\n");
+        out.write("    \"warmupIterations\" : " + WARMUP_ITERATIONS + ",\n");
+        out.write("    \"measurementIterations\" : " + MEASURE_ITERATIONS + ",\n");
+        out.write("    \"params\" : {");
+        int n = 0;
+        for (Map.Entry<String, String> param : r.c.params.entrySet()) {
+          out.write((n++ == 0 ? " " : ", ") + quote(param.getKey()) + " : "
+                  + quote(param.getValue()));
+        }
+        out.write(" },\n");
+        out.write("    \"primaryMetric\" : {\n");
+        out.write("      \"score\" : " + number(r.mean()) + ",\n");
+        out.write("      \"scoreError\" : " + number(r.error()) + ",\n");
+        out.write("      \"scoreUnit\" : \"ns/op\",\n");
+        out.write("      \"rawData\" : [ [");
+        for (int j = 0; j < r.raw.length; j++) {
+          out.write((j == 0 ? " " : ", ") + number(r.raw[j]));
+        }
+        out.write(" ] ]\n");
+        out.write("    }\n");
+        out.write(i == results.size() - 1 ? "  }\n" : "  },\n");
+      }
+      out.write("]\n");
+    }
+  }
+
+  /**
+   * Writes a string as a JSON string.
+   * @param s the string, which only has plain characters in it
+   * @return the string in quotes.
+   */
+  private static String quote(String s) {
+    return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+
+  /**
+   * Writes a number as a JSON number.
+   * @param d the number
+   * @return the number, with a dot whatever the locale.
+   */
+  private static String number(double d) {
+    return String.format(Locale.ROOT, "%.3f", d);
+  }
+
+  /**
+   * A benchmark that hasn't been run yet.
+   */
+  private static final class Case {
+    private final String name;
+    private final Map<String, String> params;
+    private final Supplier<Op> setup;
+
+    private Case(String name, Map<String, String> params, Supplier<Op> setup) {
+      this.name = name;
+      this.params = params;
+      this.setup = setup;
+    }
+
+    /**
+     * Names the benchmark and what it's run on.
+     * @return the label, like "move:shape=hex,size=6,phase=opening".
+     */
+    private String label() {
+      StringBuilder label = new StringBuilder(name);
+      char sep = ':';
+      for (Map.Entry<String, String> param : params.entrySet()) {
+        label.append(sep).append(param.getKey()).append('=').append(param.getValue());
+        sep = ',';
+      }
+      return label.toString();
+    }
+  }
+
+  /**
+   * The measured times of a benchmark.
+   */
+  private static final class Result {
+    private final Case c;
+    // the average nanoseconds per operation in each measured iteration.
+    private final double[] raw;
+
+    private Result(Case c, double[] raw) {
+      this.c = c;
+      this.raw = raw;
+    }
+
+    private double mean() {
+      double sum = 0;
+      for (double d : raw) {
+        sum += d;
+      }
+      return sum / raw.length;
+    }
+
+    /**
+     * How far the real mean could be from the measured one.
+     * @return half the width of the 99.9% confidence interval, like JMH's score error.
+     */
+    private double error() {
+      double mean = mean();
+      double squares = 0;
+      for (double d : raw) {
+        squares += (d - mean) * (d - mean);
+      }
+      double deviation = Math.sqrt(squares / (raw.length - 1));
+      return T_999 * deviation / Math.sqrt(raw.length);
+    }
+  }
+}
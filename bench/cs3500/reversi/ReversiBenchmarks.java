@@ -0,0 +1,259 @@
+package cs3500.reversi;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.HexagonalReversiModel;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.SquareReversiModel;
+import cs3500.reversi.strategy.AvoidCornerNeighbors;
+import cs3500.reversi.strategy.EndgameSolver;
+import cs3500.reversi.strategy.FallibleStrat;
+import cs3500.reversi.strategy.MaximizeFlips;
+import cs3500.reversi.strategy.MonteCarlo;
+import cs3500.reversi.strategy.Negamax;
+import cs3500.reversi.strategy.PlayCorners;
+import cs3500.reversi.strategy.TranspositionTable;
+import cs3500.reversi.strategy.TryTwo;
+
+/**
+ * Main method for timing the model and the strategies on boards of each shape and a few sizes,
+ * in positions from the opening, the middle and the end of a game. Kept apart from the game
+ * and its tests, in bench/, and built with src on the classpath.
+ */
+public final class ReversiBenchmarks {
+  // the board sizes to time on.
+  private static final int[] HEX_SIZES = {4, 6, 8};
+  private static final int[] SQUARE_SIZES = {6, 8, 10};
+  // how many moves into the game an opening position is.
+  private static final int OPENING_PLIES = 4;
+  // how many empty tiles an endgame position has, enough for the endgame solver to take it.
+  private static final int ENDGAME_EMPTIES = 12;
+  // where the random games come from, so every run times the same positions: the first of
+  // this many seeds whose game gets to the phase.
+  private static final long SEED = 3500;
+  private static final int MAX_SEEDS = 1000;
+  // how deep the search looks and how many playouts the tree search runs, so they do the same
+  // work every time instead of stopping on the clock.
+  private static final int SEARCH_DEPTH = 4;
+  private static final long PLAYOUTS = 2000;
+  private static final long NO_BUDGET = 1_000_000;
+
+  /**
+   * Main method.
+   * @param args optionally a file to write the results to as JSON, and a regular expression
+   *             picking which benchmarks to run, like 'chooseMove.*hex'.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length > 2) {
+      helpmessage();
+      System.exit(1);
+    }
+    Pattern filter = Pattern.compile(args.length > 1 ? args[1] : "");
+    BenchmarkRunner runner = new BenchmarkRunner();
+    for (int size : HEX_SIZES) {
+      addAll(runner, "hex", size, () -> new HexagonalReversiModel(size));
+    }
+    for (int size : SQUARE_SIZES) {
+      addAll(runner, "square", size, () -> new SquareReversiModel(size));
+    }
+    runner.run(filter);
+    if (args.length > 0) {
+      runner.writeJson(Paths.get(args[0]));
+    }
+  }
+
+  /**
+   * Adds every benchmark on one board, in each phase of the game.
+   * @param runner   where to add them
+   * @param shape    'hex' or 'square'
+   * @param size     the board's size
+   * @param newBoard makes the board a game starts on
+   */
+  private static void addAll(BenchmarkRunner runner, String shape, int size,
+                             Supplier<ReversiModel> newBoard) {
+    for (String phase : new String[] {"opening", "midgame", "endgame"}) {
+      if (!reaches(newBoard, phase)) {
+        // the bigger hex boards leave tiles nobody can ever move to, so their games end with
+        // more empties than the endgame solver takes on.
+        System.out.println("Skipping the " + phase + " on " + shape + " " + size
+            + ", no random game gets there.");
+        continue;
+      }
+      Map<String, String> params = new LinkedHashMap<>();
+      params.put("shape", shape);
+      params.put("size", Integer.toString(size));
+      params.put("phase", phase);
+      Supplier<ReversiModel> position = () -> position(newBoard, phase);
+
+      runner.add("move", params, () -> {
+        // plays each legal move in turn, taking it back to stay on the same position.
+        ReversiModel board = position.get();
+        List<Coordinate> legal = board.getLegalMoves();
+        int[] next = {0};
+        return () -> {
+          board.move(legal.get(next[0]++ % legal.size()));
+          board.undo();
+          return next[0];
+        };
+      });
+      runner.add("isLegal", params, () -> {
+        ReversiModel board = position.get();
+        List<Coordinate> tiles = tiles(board);
+        int[] next = {0};
+        return () -> board.isLegal(tiles.get(next[0]++ % tiles.size())) ? 1 : 0;
+      });
+      runner.add("anyValidMoves", params, () -> {
+        ReversiModel board = position.get();
+        return () -> board.anyValidMoves() ? 1 : 0;
+      });
+      runner.add("potentialScore", params, () -> {
+        ReversiModel board = position.get();
+        List<Coordinate> legal = board.getLegalMoves();
+        int[] next = {0};
+        return () -> board.potentialScore(legal.get(next[0]++ % legal.size()));
+      });
+      runner.add("getBlackScore", params, () -> {
+        ReversiModel board = position.get();
+        return board::getBlackScore;
+      });
+      runner.add("copy", params, () -> {
+        ReversiModel board = position.get();
+        if (board instanceof HexagonalReversiModel) {
+          return () -> new HexagonalReversiModel(board).getEmptyCount();
+        }
+        return () -> board.copy().getEmptyCount();
+      });
+
+      addStrategy(runner, "simple", params, position, MaximizeFlips::new);
+      addStrategy(runner, "intermediate", params, position, AvoidCornerNeighbors::new);
+      addStrategy(runner, "advanced", params, position,
+          () -> new TryTwo(new PlayCorners(), new AvoidCornerNeighbors()));
+      // a fresh table every move, so one move's search doesn't answer the next.
+      addStrategy(runner, "negamax", params, position,
+          () -> new Negamax(SEARCH_DEPTH, NO_BUDGET, new TranspositionTable(1), 1));
+      addStrategy(runner, "mcts", params, position,
+          () -> new MonteCarlo(NO_BUDGET, PLAYOUTS, 1));
+      if (phase.equals("endgame")) {
+        // the solver gives up on positions with more empties than it takes, and would be timed
+        // doing nothing.
+        addStrategy(runner, "endgame", params, () -> {
+          ReversiModel board = position.get();
+          if (!new EndgameSolver().chooseMove(board).isPresent()) {
+            throw new IllegalStateException("The endgame solver didn't solve " + shape + " "
+                + size + " with " + board.getEmptyCount() + " empty tiles!");
+          }
+          return board;
+        }, EndgameSolver::new);
+      }
+    }
+  }
+
+  /**
+   * Adds a benchmark of one strategy choosing a move.
+   * @param runner   where to add it
+   * @param name     the strategy's name
+   * @param params   the board and phase
+   * @param position makes the position to choose a move in
+   * @param strategy makes the strategy, new for every move
+   */
+  private static void addStrategy(BenchmarkRunner runner, String name,
+                                  Map<String, String> params, Supplier<ReversiModel> position,
+                                  Supplier<FallibleStrat> strategy) {
+    Map<String, String> withStrategy = new LinkedHashMap<>();
+    withStrategy.put("strategy", name);
+    withStrategy.putAll(params);
+    runner.add("chooseMove", withStrategy, () -> {
+      ReversiModel board = position.get();
+      return () -> strategy.get().chooseMove(board).map(board::getCellIndex).orElse(-1);
+    });
+  }
+
+  /**
+   * Plays random games to the end, then takes moves back until one is in a phase: a few moves
+   * in for the opening, half the board empty for the midgame, and {@link #ENDGAME_EMPTIES} empty
+   * for the endgame. Games that end before then, or where the player to move then has to pass,
+   * are skipped for the next seed.
+   * @param newBoard makes the board the game starts on
+   * @param phase    'opening', 'midgame' or 'endgame'
+   * @return a position with exactly the phase's empty tiles, and a legal move for whoever's
+   *         turn it is.
+   * @throws IllegalStateException if none of the games gets there.
+   */
+  private static ReversiModel position(Supplier<ReversiModel> newBoard, String phase) {
+    for (long seed = SEED; seed < SEED + MAX_SEEDS; seed++) {
+      Random random = new Random(seed);
+      ReversiModel board = newBoard.get();
+      int empties;
+      switch (phase) {
+        case "opening":
+          empties = board.getEmptyCount() - OPENING_PLIES;
+          break;
+        case "midgame":
+          empties = board.getCellCount() / 2;
+          break;
+        default:
+          empties = ENDGAME_EMPTIES;
+      }
+      while (!board.isGameOver()) {
+        List<Coordinate> legal = board.getLegalMoves();
+        if (legal.isEmpty()) {
+          board.pass();
+        } else {
+          board.move(legal.get(random.nextInt(legal.size())));
+        }
+      }
+      // every move fills one tile, so this stops at the first position with enough empties.
+      while (board.getEmptyCount() < empties || !board.anyValidMoves()) {
+        board.undo();
+      }
+      if (board.getEmptyCount() == empties) {
+        return board;
+      }
+    }
+    throw new IllegalStateException("No random game got to the " + phase + "!");
+  }
+
+  /**
+   * Checks whether any of the random games gets to a phase.
+   * @param newBoard makes the board the game starts on
+   * @param phase    'opening', 'midgame' or 'endgame'
+   * @return true iff {@link #position} finds a position in the phase.
+   */
+  private static boolean reaches(Supplier<ReversiModel> newBoard, String phase) {
+    try {
+      position(newBoard, phase);
+      return true;
+    } catch (IllegalStateException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Lists every tile on a board.
+   * @param board the board
+   * @return the coordinates of every tile.
+   */
+  private static List<Coordinate> tiles(ReversiModel board) {
+    List<Coordinate> tiles = new ArrayList<>();
+    for (int cell = 0; cell < board.getCellCount(); cell++) {
+      tiles.add(board.getCoordinate(cell));
+    }
+    return tiles;
+  }
+
+  private static void helpmessage() {
+    System.out.println("Format: '[json file] [filter]'");
+    System.out.println("Times the model and strategies, printing nanoseconds per operation.");
+    System.out.println("Writes the results to [json file] in JMH's format if it's given, and");
+    System.out.println("only runs benchmarks whose label matches the regular expression [filter].");
+  }
+}
@@ -0,0 +1,75 @@
+package cs3500.reversi;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import cs3500.reversi.model.HexagonalReversiModel;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.SquareReversiModel;
+import cs3500.reversi.strategy.BookBuilder;
+import cs3500.reversi.strategy.EndgameSolver;
+import cs3500.reversi.strategy.Negamax;
+import cs3500.reversi.strategy.OpeningBook;
+import cs3500.reversi.strategy.TryTwo;
+
+/**
+ * Main method for growing an opening book by having the computer play itself.
+ */
+public final class BookMaker {
+  // how many moves from the start of each game go in the book, if it isn't given.
+  private static final int DEFAULT_PLIES = 10;
+  // how deep the self-play games search, and the most time they take per move in milliseconds.
+  private static final int SEARCH_DEPTH = 4;
+  private static final long SEARCH_BUDGET = 10_000;
+  // the chance of a book move being random, so the games branch out.
+  private static final double RANDOMNESS = 0.25;
+
+  /**
+   * Main method.
+   * @param args the book file, 'hex' or 'square', the board size, the number of games to play,
+   *             and optionally how many moves from each game go in the book.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 4 || args.length > 5) {
+      System.out.println("Must provide four or five arguments.");
+      helpmessage();
+      System.exit(1);
+    }
+    Path file = Paths.get(args[0]);
+    int size = Integer.parseInt(args[2]);
+    int games = Integer.parseInt(args[3]);
+    int plies = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_PLIES;
+    Supplier<ReversiModel> newGame;
+    if (args[1].equalsIgnoreCase("hex")) {
+      newGame = () -> new HexagonalReversiModel(size);
+    } else if (args[1].equalsIgnoreCase("square")) {
+      newGame = () -> new SquareReversiModel(size);
+    } else {
+      helpmessage();
+      System.exit(1);
+      return;
+    }
+
+    // grow the book if there already is one.
+    BookBuilder book = Files.exists(file)
+            ? new BookBuilder(new OpeningBook(file)) : new BookBuilder();
+    int before = book.size();
+    book.selfPlay(newGame, games, plies,
+            new TryTwo(new EndgameSolver(), new Negamax(SEARCH_DEPTH, SEARCH_BUDGET)),
+            new Random(), RANDOMNESS);
+    book.write(file);
+    System.out.println("Wrote " + book.size() + " entries to " + file
+            + " (" + (book.size() - before) + " new)");
+  }
+
+  private static void helpmessage() {
+    System.out.println("Format: '<book file> <hex|square> <size> <games> [plies]'");
+    System.out.println("Plays <games> games of the computer against itself, and adds the first");
+    System.out.println("[plies] moves of each (default " + DEFAULT_PLIES + ") to the book,");
+    System.out.println("weighted by how the game went for whoever made them.");
+  }
+}
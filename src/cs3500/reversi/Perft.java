@@ -0,0 +1,148 @@
+package cs3500.reversi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.HexagonalReversiModel;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.SquareReversiModel;
+
+/**
+ * Main method for counting every line of play a few moves deep from the start of a game, to
+ * check that the model finds exactly the right moves, and how fast. A forced pass counts as a
+ * move; a position where neither player can move ends the line.
+ */
+public final class Perft {
+
+  /**
+   * Main method.
+   * @param args 'hex' or 'square', the board size, how many moves deep to count, and optionally
+   *             how many threads to split the first moves between.
+   */
+  public static void main(String[] args) {
+    if (args.length < 3 || args.length > 4) {
+      System.out.println("Must provide three or four arguments.");
+      helpmessage();
+      System.exit(1);
+    }
+    int size = Integer.parseInt(args[1]);
+    int depth = Integer.parseInt(args[2]);
+    int threads = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+    ReversiModel board;
+    if (args[0].equalsIgnoreCase("hex")) {
+      board = new HexagonalReversiModel(size);
+    } else if (args[0].equalsIgnoreCase("square")) {
+      board = new SquareReversiModel(size);
+    } else {
+      helpmessage();
+      System.exit(1);
+      return;
+    }
+    if (depth < 1 || threads < 1) {
+      System.out.println("Need to count at least one move deep, on at least one thread.");
+      System.exit(1);
+    }
+
+    long start = System.nanoTime();
+    List<Coordinate> moves = board.getLegalMoves();
+    long[] counts = divide(board, depth, threads);
+    double seconds = (System.nanoTime() - start) / 1e9;
+    long total = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      System.out.println("(" + moves.get(i).c + ", " + moves.get(i).r + "): " + counts[i]);
+      total += counts[i];
+    }
+    System.out.println();
+    System.out.println("Nodes: " + total);
+    System.out.printf("Time: %.3f s%n", seconds);
+    System.out.printf("Nodes per second: %.0f%n", total / Math.max(seconds, 1e-9));
+  }
+
+  /**
+   * Counts the lines of play under each first move of a position. The first moves are
+   * split between threads, each counting on its own copy of the board.
+   * @param board   the position, which must have a legal move; left as it was
+   * @param depth   how many moves deep to count, at least 1
+   * @param threads how many threads to count with
+   * @return the count under each move, in the order of {@link ReversiModel#getLegalMoves()}.
+   * @throws IllegalArgumentException if the depth or threads is less than 1, or there's no move.
+   */
+  public static long[] divide(ReversiModel board, int depth, int threads) {
+    List<Coordinate> moves = board.getLegalMoves();
+    if (depth < 1 || threads < 1 || moves.isEmpty()) {
+      throw new IllegalArgumentException("Need a depth, a thread, and a move to divide!");
+    }
+    long[] counts = new long[moves.size()];
+    if (threads == 1) {
+      for (int i = 0; i < moves.size(); i++) {
+        board.move(moves.get(i));
+        counts[i] = perft(board, depth - 1);
+        board.undo();
+      }
+      return counts;
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, moves.size()));
+    try {
+      List<Future<Long>> results = new ArrayList<>();
+      for (Coordinate move : moves) {
+        ReversiModel copy = board.copy();
+        results.add(pool.submit(() -> {
+          copy.move(move);
+          return perft(copy, depth - 1);
+        }));
+      }
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] = results.get(i).get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Counting was interrupted!", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A counting thread failed!", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+    return counts;
+  }
+
+  /**
+   * Counts the lines of play from a position.
+   * @param board the position; left as it was
+   * @param depth how many moves deep to count
+   * @return the number of positions depth moves in, and of positions where the game ended
+   *         sooner.
+   */
+  public static long perft(ReversiModel board, int depth) {
+    if (depth == 0 || board.isGameOver()) {
+      return 1;
+    }
+    long nodes = 0;
+    boolean moved = false;
+    for (int cell = 0; cell < board.getCellCount(); cell++) {
+      if (board.isLegal(cell)) {
+        moved = true;
+        board.move(board.getCoordinate(cell));
+        nodes += perft(board, depth - 1);
+        board.undo();
+      }
+    }
+    if (!moved) {
+      board.pass();
+      // if the other player can't move either, the game is over here.
+      nodes = board.anyValidMoves() ? perft(board, depth - 1) : 1;
+      board.undo();
+    }
+    return nodes;
+  }
+
+  private static void helpmessage() {
+    System.out.println("Format: '<hex|square> <size> <depth> [threads]'");
+    System.out.println("Counts every line of play <depth> moves deep from the start of a game,");
+    System.out.println("split by the first move, on [threads] threads (default 1).");
+  }
+}
@@ -0,0 +1,168 @@
+package cs3500.reversi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cs3500.reversi.adapter.StratAdapter;
+import cs3500.reversi.model.HexagonalReversiModel;
+import cs3500.reversi.model.SquareReversiModel;
+import cs3500.reversi.provider.strategy.AvoidCellsNextToCorners;
+import cs3500.reversi.provider.strategy.CaptureMostDiscs;
+import cs3500.reversi.provider.strategy.PlayForCorners;
+import cs3500.reversi.provider.strategy.ReversiStrategy;
+import cs3500.reversi.provider.strategy.TryManyReversiStrategy;
+import cs3500.reversi.strategy.AvoidCornerNeighbors;
+import cs3500.reversi.strategy.EndgameSolver;
+import cs3500.reversi.strategy.Infallible;
+import cs3500.reversi.strategy.MatchResult;
+import cs3500.reversi.strategy.MaximizeFlips;
+import cs3500.reversi.strategy.MonteCarlo;
+import cs3500.reversi.strategy.Negamax;
+import cs3500.reversi.strategy.PlayCorners;
+import cs3500.reversi.strategy.Tournament;
+import cs3500.reversi.strategy.TranspositionTable;
+import cs3500.reversi.strategy.TryTwo;
+
+/**
+ * Main method for playing robots against each other without a window, to check a change to a
+ * strategy didn't make it worse.
+ */
+public final class PlayTournament {
+  // how long the expert and mcts players think about each move, in milliseconds.
+  private static final long MOVE_BUDGET = 100;
+  // the expert's table, in megabytes; every game has its own, so it's kept small.
+  private static final int TABLE_SIZE = 4;
+  // how many random moves each opening starts with, and where they come from.
+  private static final int OPENING_PLIES = 4;
+  private static final long SEED = 3500;
+
+  /**
+   * Main method.
+   * @param args the boards to play on, how many openings to play on each, and the players.
+   */
+  public static void main(String[] args) {
+    if (args.length < 4) {
+      System.out.println("Must provide at least four arguments.");
+      helpmessage();
+      System.exit(1);
+    }
+    Tournament tournament = new Tournament();
+    boolean anySquare = false;
+    for (String board : args[0].split(",")) {
+      String name = board.toLowerCase();
+      if (name.startsWith("hex")) {
+        int size = Integer.parseInt(name.substring(3));
+        tournament.addBoard(name, () -> new HexagonalReversiModel(size));
+      } else if (name.startsWith("square")) {
+        int size = Integer.parseInt(name.substring(6));
+        tournament.addBoard(name, () -> new SquareReversiModel(size));
+        anySquare = true;
+      } else {
+        System.out.println("What board is " + board + "??");
+        helpmessage();
+        System.exit(1);
+      }
+    }
+    int openings = Integer.parseInt(args[1]);
+    for (int i = 2; i < args.length; i++) {
+      String name = args[i];
+      switch (name) {
+        case "simple":
+          tournament.addEntrant(name, () -> new Infallible(new MaximizeFlips()));
+          break;
+        case "intermediate":
+          tournament.addEntrant(name, () -> new Infallible(new AvoidCornerNeighbors()));
+          break;
+        case "advanced":
+          tournament.addEntrant(name, () -> new Infallible(
+                  new TryTwo(new PlayCorners(), new AvoidCornerNeighbors())));
+          break;
+        case "expert":
+          // one thread each, since the games already keep every core busy.
+          tournament.addEntrant(name, () -> new Infallible(new TryTwo(new EndgameSolver(),
+                  new Negamax(Integer.MAX_VALUE, MOVE_BUDGET,
+                          new TranspositionTable(TABLE_SIZE), 1))));
+          break;
+        case "mcts":
+          tournament.addEntrant(name, () -> new Infallible(
+                  new MonteCarlo(MOVE_BUDGET, Long.MAX_VALUE, 1)));
+          break;
+        case "provider-simple":
+        case "provider-intermediate":
+        case "provider-advanced":
+          if (anySquare) {
+            System.out.println("The provider's players only play on hex boards.");
+            System.exit(1);
+          }
+          tournament.addEntrant(name, (board, black) ->
+                  new Infallible(new StratAdapter(providerStrategy(name), board, black)));
+          break;
+        default:
+          System.out.println("What are you trying to input??");
+          helpmessage();
+          System.exit(1);
+      }
+    }
+
+    int threads = Runtime.getRuntime().availableProcessors();
+    long start = System.nanoTime();
+    List<MatchResult> results = tournament.play(openings, OPENING_PLIES, SEED, threads);
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    // each pair's boards come one after another; print them, then their total.
+    List<MatchResult> pair = new ArrayList<>();
+    int games = 0;
+    for (MatchResult result : results) {
+      if (!pair.isEmpty() && !(pair.get(0).getFirst().equals(result.getFirst())
+              && pair.get(0).getSecond().equals(result.getSecond()))) {
+        printPair(pair);
+        pair.clear();
+      }
+      pair.add(result);
+      games += result.getGames();
+    }
+    printPair(pair);
+    System.out.printf("%d games in %.1f seconds on %d threads%n", games, seconds, threads);
+  }
+
+  /**
+   * Prints one pair's results on each board, and over all of them if there's more than one.
+   * @param pair the results
+   */
+  private static void printPair(List<MatchResult> pair) {
+    MatchResult total = pair.get(0);
+    System.out.println(total);
+    for (int i = 1; i < pair.size(); i++) {
+      System.out.println(pair.get(i));
+      total = total.plus(pair.get(i), "all boards");
+    }
+    if (pair.size() > 1) {
+      System.out.println(total);
+    }
+  }
+
+  /**
+   * Makes one of the provider's strategies.
+   * @param name the player's name
+   * @return the strategy.
+   */
+  private static ReversiStrategy providerStrategy(String name) {
+    switch (name) {
+      case "provider-simple":
+        return new CaptureMostDiscs();
+      case "provider-intermediate":
+        return new AvoidCellsNextToCorners();
+      default:
+        return new TryManyReversiStrategy(new PlayForCorners(), new CaptureMostDiscs());
+    }
+  }
+
+  private static void helpmessage() {
+    System.out.println("Format: '<boards> <openings> <player> <player> [more players...]'");
+    System.out.println("Where boards are like 'hex6,hex4,square8', every pair of players plays");
+    System.out.println("<openings> random openings from each side on every board, and the");
+    System.out.println("players are 'simple', 'intermediate', 'advanced', 'expert', 'mcts',");
+    System.out.println("or on hex boards 'provider-simple', 'provider-intermediate' and");
+    System.out.println("'provider-advanced'. Results are from the side of the first player.");
+  }
+}
@@ -9,7 +9,6 @@ import cs3500.reversi.adapter.ViewAdapter;
 import cs3500.reversi.controller.Controller;
 import cs3500.reversi.controller.GenericPlayer;
 import cs3500.reversi.controller.HumanPlayer;
-import cs3500.reversi.controller.MachinePlayer;
 import cs3500.reversi.controller.ReversiController;
 import cs3500.reversi.model.HexagonalReversiModel;
 import cs3500.reversi.provider.model.ReversiReadOnlyModel;
@@ -20,10 +19,14 @@ import cs3500.reversi.provider.strategy.ReversiStrategy;
 import cs3500.reversi.provider.strategy.TryManyReversiStrategy;
 import cs3500.reversi.provider.view.HexagonReversiView;
 import cs3500.reversi.strategy.AvoidCornerNeighbors;
+import cs3500.reversi.strategy.EndgameSolver;
 import cs3500.reversi.strategy.InFallibleStrat;
 import cs3500.reversi.strategy.Infallible;
 import cs3500.reversi.strategy.MaximizeFlips;
+import cs3500.reversi.strategy.MonteCarlo;
+import cs3500.reversi.strategy.Negamax;
 import cs3500.reversi.strategy.PlayCorners;
+import cs3500.reversi.strategy.TranspositionTable;
 import cs3500.reversi.strategy.TryTwo;
 import cs3500.reversi.view.ReversiGuiView;
 import cs3500.reversi.view.ReversiView;
@@ -69,12 +72,23 @@ public final class Reversi {
         case "advanced":
           strat = new Infallible(new TryTwo(new PlayCorners(), new AvoidCornerNeighbors()));
           break;
+        case "expert":
+          // solves the end of the game exactly, and searches ahead until then.
+          strat = new Infallible(new TryTwo(new EndgameSolver(),
+                  new Negamax(Integer.MAX_VALUE, Robots.EXPERT_BUDGET,
+                          new TranspositionTable(Robots.EXPERT_TABLE_SIZE), Robots.EXPERT_THREADS,
+                          Robots.expertPatterns(model))));
+          break;
+        case "mcts":
+          strat = new Infallible(new MonteCarlo(Robots.EXPERT_BUDGET, Long.MAX_VALUE,
+                  Robots.EXPERT_THREADS));
+          break;
         default:
           System.out.println("What are you trying to input??");
           helpmessage();
           throw new RuntimeException();
       }
-      player1 = new MachinePlayer(true, strat, model);
+      player1 = Robots.robot(true, strat, model);
     }
 
     // provider player setup.
@@ -100,7 +114,7 @@ public final class Reversi {
       // adapter
       InFallibleStrat adaptedStrat =
               new Infallible(new StratAdapter(strat, model, false));
-      player2 = new MachinePlayer(false, adaptedStrat, model);
+      player2 = Robots.robot(false, adaptedStrat, model);
     }
 
     // provider player
@@ -120,8 +134,10 @@ public final class Reversi {
     System.out.println("Format: '<player1> <player2>'");
     System.out.println("Where player1 is black, player2 is white,");
     System.out.println("and player1 and player2 are one of:");
-    System.out.println("'human', 'simple', 'intermediate', 'advanced'");
-    System.out.println("Note: the simple, intermediate, and advanced players are robots");
+    System.out.println("'human', 'simple', 'intermediate', 'advanced', 'expert', 'mcts'");
+    System.out.println("Note: every player except human is a robot");
     System.out.println("that will automatically make moves. Their view can be discarded.");
+    System.out.println("To have the expert use trained patterns, run with -D"
+            + Robots.EXPERT_WEIGHTS + "=<weights file>.");
   }
 }
\ No newline at end of file
@@ -4,16 +4,19 @@ import javax.swing.JFrame;
 
 import cs3500.reversi.controller.GenericPlayer;
 import cs3500.reversi.controller.HumanPlayer;
-import cs3500.reversi.controller.MachinePlayer;
 import cs3500.reversi.controller.ReversiController;
 import cs3500.reversi.model.HexagonalReversiModel;
 import cs3500.reversi.model.ReversiModel;
 import cs3500.reversi.model.SquareReversiModel;
 import cs3500.reversi.strategy.AvoidCornerNeighbors;
+import cs3500.reversi.strategy.EndgameSolver;
 import cs3500.reversi.strategy.InFallibleStrat;
 import cs3500.reversi.strategy.Infallible;
 import cs3500.reversi.strategy.MaximizeFlips;
+import cs3500.reversi.strategy.MonteCarlo;
+import cs3500.reversi.strategy.Negamax;
 import cs3500.reversi.strategy.PlayCorners;
+import cs3500.reversi.strategy.TranspositionTable;
 import cs3500.reversi.strategy.TryTwo;
 import cs3500.reversi.view.ReversiGuiView;
 import cs3500.reversi.view.ReversiView;
@@ -63,15 +66,28 @@ public final class ReversiHints {
       switch (args[i]) {
         case "simple":
           strat = new Infallible(new MaximizeFlips());
-          players[i] = new MachinePlayer(i == 0, strat, model);
+          players[i] = Robots.robot(i == 0, strat, model);
           break;
         case "intermediate":
           strat = new Infallible(new AvoidCornerNeighbors());
-          players[i] = new MachinePlayer(i == 0, strat, model);
+          players[i] = Robots.robot(i == 0, strat, model);
           break;
         case "advanced":
           strat = new Infallible(new TryTwo(new PlayCorners(), new AvoidCornerNeighbors()));
-          players[i] = new MachinePlayer(i == 0, strat, model);
+          players[i] = Robots.robot(i == 0, strat, model);
+          break;
+        case "expert":
+          // solves the end of the game exactly, and searches ahead until then.
+          strat = new Infallible(new TryTwo(new EndgameSolver(),
+                  new Negamax(Integer.MAX_VALUE, Robots.EXPERT_BUDGET,
+                          new TranspositionTable(Robots.EXPERT_TABLE_SIZE), Robots.EXPERT_THREADS,
+                          Robots.expertPatterns(model))));
+          players[i] = Robots.robot(i == 0, strat, model);
+          break;
+        case "mcts":
+          strat = new Infallible(new MonteCarlo(Robots.EXPERT_BUDGET, Long.MAX_VALUE,
+                  Robots.EXPERT_THREADS));
+          players[i] = Robots.robot(i == 0, strat, model);
           break;
         case "human":
           break;
@@ -95,8 +111,10 @@ public final class ReversiHints {
     System.out.println("Format: '<player1> <player2>'");
     System.out.println("Where player1 is black, player2 is white,");
     System.out.println("and player1 and player2 are one of:");
-    System.out.println("'human', 'simple', 'intermediate', 'advanced'");
-    System.out.println("Note: the simple, intermediate, and advanced players are robots");
+    System.out.println("'human', 'simple', 'intermediate', 'advanced', 'expert', 'mcts'");
+    System.out.println("Note: every player except human is a robot");
     System.out.println("that will automatically make moves. Their view can be discarded.");
+    System.out.println("To have the expert use trained patterns, run with -D"
+            + Robots.EXPERT_WEIGHTS + "=<weights file>.");
   }
 }
\ No newline at end of file
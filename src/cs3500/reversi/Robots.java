@@ -0,0 +1,71 @@
+package cs3500.reversi;
+
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.swing.SwingUtilities;
+
+import cs3500.reversi.controller.GenericPlayer;
+import cs3500.reversi.controller.MachinePlayer;
+import cs3500.reversi.model.ObservableReversiModel;
+import cs3500.reversi.strategy.InFallibleStrat;
+import cs3500.reversi.strategy.PatternWeights;
+
+/**
+ * How the robots in the windowed games think: their budgets, the threads they think on, and
+ * the weights the expert scores positions with. Shared by {@link Reversi} and
+ * {@link ReversiHints}.
+ */
+final class Robots {
+  // how long the expert and mcts players think about each move, in milliseconds.
+  static final long EXPERT_BUDGET = 1000;
+  // they search on every core, the expert with a table of this many megabytes.
+  static final int EXPERT_THREADS = Runtime.getRuntime().availableProcessors();
+  static final int EXPERT_TABLE_SIZE = 64;
+  // the expert scores positions with the pattern weights in the file this property names, if
+  // it's set; see TrainPatterns.
+  static final String EXPERT_WEIGHTS = "reversi.weights";
+  // robots think on these threads, so the window keeps drawing, and get this long per move
+  // before they have to play the best move they've found, in milliseconds.
+  private static final ExecutorService THINKERS = Executors.newCachedThreadPool();
+  private static final long MOVE_DEADLINE = 2 * EXPERT_BUDGET;
+  // while the other player thinks, robots work out their answers to this many of the replies.
+  private static final int PONDER_REPLIES = 2;
+
+  private Robots() {
+    // just a holder for the settings.
+  }
+
+  /**
+   * Makes a robot that thinks in the background and hands its moves back to the window's thread,
+   * pondering during the other player's turn.
+   * @param black true iff the robot plays black
+   * @param strat how the robot picks its moves
+   * @param model the game
+   * @return the robot.
+   */
+  static GenericPlayer robot(boolean black, InFallibleStrat strat, ObservableReversiModel model) {
+    return MachinePlayer.pondering(black, strat, model, THINKERS, SwingUtilities::invokeLater,
+            MOVE_DEADLINE, PONDER_REPLIES);
+  }
+
+  /**
+   * Loads the expert's pattern weights, trained for the board being played.
+   * @param model the game
+   * @return the weights, or null to score positions by discs, corners and moves if no file was
+   *         given or it's not for this board.
+   */
+  static PatternWeights expertPatterns(ObservableReversiModel model) {
+    String file = System.getProperty(EXPERT_WEIGHTS);
+    if (file == null) {
+      return null;
+    }
+    try {
+      return PatternWeights.load(Paths.get(file), model);
+    } catch (IllegalArgumentException e) {
+      System.out.println(e.getMessage() + ", the expert will play without it.");
+      return null;
+    }
+  }
+}
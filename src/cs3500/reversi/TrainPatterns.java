@@ -0,0 +1,74 @@
+package cs3500.reversi;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import cs3500.reversi.model.HexagonalReversiModel;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.SquareReversiModel;
+import cs3500.reversi.strategy.Negamax;
+import cs3500.reversi.strategy.PatternTrainer;
+import cs3500.reversi.strategy.PatternWeights;
+
+/**
+ * Main method for training pattern weights from games of the computer against itself.
+ */
+public final class TrainPatterns {
+  // how many passes of gradient descent to make, if it isn't given.
+  private static final int DEFAULT_EPOCHS = 200;
+  // how much of the error to take out each epoch.
+  private static final double RATE = 0.5;
+  // how deep the self-play games search, and the most time they take per move in milliseconds.
+  private static final int SEARCH_DEPTH = 2;
+  private static final long SEARCH_BUDGET = 10_000;
+  // the chance of a move being random, so the games cover more positions.
+  private static final double RANDOMNESS = 0.1;
+
+  /**
+   * Main method.
+   * @param args the weights file, 'hex' or 'square', the board size, the number of games to
+   *             play, and optionally the number of epochs and threads to train with.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 4 || args.length > 6) {
+      System.out.println("Must provide four to six arguments.");
+      helpmessage();
+      System.exit(1);
+    }
+    Path file = Paths.get(args[0]);
+    int size = Integer.parseInt(args[2]);
+    int games = Integer.parseInt(args[3]);
+    int epochs = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_EPOCHS;
+    int threads = args.length > 5 ? Integer.parseInt(args[5])
+            : Runtime.getRuntime().availableProcessors();
+    Supplier<ReversiModel> newGame;
+    if (args[1].equalsIgnoreCase("hex")) {
+      newGame = () -> new HexagonalReversiModel(size);
+    } else if (args[1].equalsIgnoreCase("square")) {
+      newGame = () -> new SquareReversiModel(size);
+    } else {
+      helpmessage();
+      System.exit(1);
+      return;
+    }
+
+    PatternTrainer trainer = new PatternTrainer(newGame.get());
+    trainer.selfPlay(newGame, games, new Negamax(SEARCH_DEPTH, SEARCH_BUDGET), new Random(),
+            RANDOMNESS);
+    System.out.println("Recorded " + trainer.size() + " positions from " + games + " games");
+    PatternWeights weights = trainer.train(epochs, RATE, threads);
+    weights.save(file);
+    System.out.println("Wrote " + weights.getPatternCount() + " patterns to " + file
+            + ", mean squared error " + trainer.getLastError() + " discs squared");
+  }
+
+  private static void helpmessage() {
+    System.out.println("Format: '<weights file> <hex|square> <size> <games> [epochs] [threads]'");
+    System.out.println("Plays <games> games of the computer against itself, and fits pattern");
+    System.out.println("weights to how each position turned out, with [epochs] passes of");
+    System.out.println("gradient descent (default " + DEFAULT_EPOCHS + ") on [threads] threads.");
+  }
+}
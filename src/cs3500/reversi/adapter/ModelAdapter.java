@@ -154,23 +154,17 @@ public class ModelAdapter implements ReversiReadOnlyModel {
   @Override
   public Map<Hex, Disc> getBoard() throws IllegalStateException {
     Map<Hex, Disc> ans = new HashMap<>();
-    Coordinate coord;
     Hex provcoord;
-    for (int r = 0; r < model.getBoardHeight(); r++) {
-      for (int q = 0; q < model.getBoardWidth(); q++) {
-        coord = new Coordinate(q, r);
-        provcoord = toProvHex(coord);
-        if (model.isInBounds(coord)) {
-          if (!model.hasPiece(coord)) {
-            ans.put(provcoord, Disc.NONE);
-          }
-          else if (model.isTileBlack(coord)) {
-            ans.put(provcoord, Disc.BLACK);
-          }
-          else {
-            ans.put(provcoord, Disc.WHITE);
-          }
-        }
+    for (int cell = 0; cell < model.getCellCount(); cell++) {
+      provcoord = toProvHex(model.getCoordinate(cell));
+      if (!model.hasPiece(cell)) {
+        ans.put(provcoord, Disc.NONE);
+      }
+      else if (model.isTileBlack(cell)) {
+        ans.put(provcoord, Disc.BLACK);
+      }
+      else {
+        ans.put(provcoord, Disc.WHITE);
       }
     }
     return ans;
@@ -186,14 +180,8 @@ public class ModelAdapter implements ReversiReadOnlyModel {
   @Override
   public List<Hex> getValidMoves(Disc player) throws IllegalStateException {
     ArrayList<Hex> moves = new ArrayList<>();
-    Coordinate coord;
-    for (int r = 0; r < model.getBoardHeight(); r++) {
-      for (int q = 0; q < model.getBoardWidth(); q++) {
-        coord = new Coordinate(q, r);
-        if (model.isLegal(coord)) {
-          moves.add(toProvHex(coord));
-        }
-      }
+    for (Coordinate coord : model.getLegalMoves()) {
+      moves.add(toProvHex(coord));
     }
     return moves;
   }
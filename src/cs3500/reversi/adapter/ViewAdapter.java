@@ -1,6 +1,7 @@
 package cs3500.reversi.adapter;
 
 import cs3500.reversi.controller.PlayerActions;
+import cs3500.reversi.model.MoveResult;
 import cs3500.reversi.model.ObservableReversiModel;
 import cs3500.reversi.provider.view.ReversiView;
 
@@ -38,6 +39,15 @@ public class ViewAdapter implements cs3500.reversi.view.ReversiView {
     view.repaint();
   }
 
+  /**
+   * Repaints the whole board, since the provider's view can't repaint single tiles.
+   * @param result the tile placed and the discs flipped.
+   */
+  @Override
+  public void update(MoveResult result) {
+    view.repaint();
+  }
+
   /**
    * Indicates that a requested move was not valid.
    * To be displayed to the user!
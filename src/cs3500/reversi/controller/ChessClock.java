@@ -0,0 +1,285 @@
+package cs3500.reversi.controller;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import cs3500.reversi.model.ObservableReversiModel;
+import cs3500.reversi.strategy.GameClock;
+
+/**
+ * A chess clock for a game: each player's time only runs on their turn, and a player who runs
+ * out of time (flags) loses. Either each player has a base time for the whole game and gets an
+ * increment back after every move, or they get the same time for every move.
+ * Time is measured with {@link System#nanoTime()}, so changes to the wall clock don't matter,
+ * unless the clock is given another time source, like a test's.
+ * Shared by the controllers of a game, which switch it on every turn, and readable from any
+ * thread, so strategies thinking in the background can budget themselves from it.
+ * While a player's time is running, the clock checks on them when it should run out, and tells
+ * its listeners if it has, so the game ends even if that player never answers.
+ */
+public final class ChessClock implements GameClock {
+  // the fewest moves a player is expected to still have to make, so the last few moves of a
+  // game don't each get most of the time left.
+  private static final long MIN_MOVES_LEFT = 8;
+  // time kept back from every move for the search to notice it's done and the move to get back,
+  // in milliseconds; or a tenth of the time left, if that's more.
+  private static final long MARGIN_MILLIS = 20;
+
+  // each player's time at the start of the game, or of every move; and their increment.
+  private final long baseNanos;
+  private final long incrementNanos;
+  private final boolean perMove;
+  // the time each player had left when their turn last started or ended; guarded by this.
+  private final long[] remaining = new long[2];
+  // whose time is running: 0 for black, 1 for white, or -1 for nobody.
+  private int running = -1;
+  // when the running player's turn started, from the time source.
+  private long turnStart;
+  // the player who ran out of time, like running, or -1 if nobody has.
+  private int flagged = -1;
+  // whether the listeners were told who flagged.
+  private boolean told;
+  // the check on the running player for when their time runs out, or null.
+  private ScheduledFuture<?> check;
+  // where the time comes from, in nanoseconds like System.nanoTime().
+  private final LongSupplier nanoTime;
+  private final List<ClockStatus> listeners = new CopyOnWriteArrayList<>();
+
+  private ChessClock(long baseMillis, long incrementMillis, boolean perMove,
+                     LongSupplier nanoTime) {
+    if (baseMillis <= 0 || incrementMillis < 0 || nanoTime == null) {
+      throw new IllegalArgumentException("Need a positive time and an increment of at least 0!");
+    }
+    this.nanoTime = nanoTime;
+    this.baseNanos = baseMillis * 1_000_000;
+    this.incrementNanos = incrementMillis * 1_000_000;
+    this.perMove = perMove;
+    remaining[0] = baseNanos;
+    remaining[1] = baseNanos;
+  }
+
+  /**
+   * Makes a clock with a base time for the whole game, plus an increment after every move.
+   * @param baseMillis      each player's time for the game, in milliseconds. Must be positive.
+   * @param incrementMillis the time added after each move, in milliseconds. Can be 0.
+   * @return the clock, not yet running.
+   * @throws IllegalArgumentException if the base isn't positive or the increment is negative.
+   */
+  public static ChessClock withIncrement(long baseMillis, long incrementMillis) {
+    return withIncrement(baseMillis, incrementMillis, System::nanoTime);
+  }
+
+  /**
+   * Makes a clock like above, which reads the time from somewhere else.
+   * @param baseMillis      each player's time for the game, in milliseconds. Must be positive.
+   * @param incrementMillis the time added after each move, in milliseconds. Can be 0.
+   * @param nanoTime        the time, in nanoseconds, like {@code System::nanoTime}
+   * @return the clock, not yet running.
+   * @throws IllegalArgumentException if the base isn't positive, the increment is negative, or
+   *                                  there's no time source.
+   */
+  public static ChessClock withIncrement(long baseMillis, long incrementMillis,
+                                         LongSupplier nanoTime) {
+    return new ChessClock(baseMillis, incrementMillis, false, nanoTime);
+  }
+
+  /**
+   * Makes a clock with the same time for every move, which doesn't carry over to the next.
+   * @param moveMillis the time for each move, in milliseconds. Must be positive.
+   * @return the clock, not yet running.
+   * @throws IllegalArgumentException if the time isn't positive.
+   */
+  public static ChessClock perMove(long moveMillis) {
+    return perMove(moveMillis, System::nanoTime);
+  }
+
+  /**
+   * Makes a clock like above, which reads the time from somewhere else.
+   * @param moveMillis the time for each move, in milliseconds. Must be positive.
+   * @param nanoTime   the time, in nanoseconds, like {@code System::nanoTime}
+   * @return the clock, not yet running.
+   * @throws IllegalArgumentException if the time isn't positive, or there's no time source.
+   */
+  public static ChessClock perMove(long moveMillis, LongSupplier nanoTime) {
+    return new ChessClock(moveMillis, 0, true, nanoTime);
+  }
+
+  /**
+   * Adds a listener to be told when a player runs out of time. Told on the clock's timer thread
+   * if nobody else noticed first, so it should hand anything that touches the game over to the
+   * game's thread.
+   * @param listener the listener
+   */
+  public void addListener(ClockStatus listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Starts a player's turn, ending the other player's. Does nothing if it's already their turn,
+   * or someone has flagged.
+   * @param black true iff it's now black's turn.
+   */
+  public void switchTo(boolean black) {
+    synchronized (this) {
+      int next = black ? 0 : 1;
+      if (running == next || flagged >= 0) {
+        return;
+      }
+      long now = nanoTime.getAsLong();
+      endTurn(now);
+      if (flagged < 0) {
+        running = next;
+        turnStart = now;
+        if (perMove) {
+          remaining[next] = baseNanos;
+        }
+        scheduleCheck(remaining[next]);
+      }
+    }
+    tellIfFlagged();
+  }
+
+  /**
+   * Stops the clock, like when the game is over, ending the turn of whoever's time was running.
+   */
+  public void stop() {
+    synchronized (this) {
+      endTurn(nanoTime.getAsLong());
+      running = -1;
+      scheduleCheck(-1);
+    }
+    tellIfFlagged();
+  }
+
+  /**
+   * Replaces the check on the running player with one for when their time runs out.
+   * @param nanos how long from now to check, in nanoseconds, or negative not to.
+   */
+  private void scheduleCheck(long nanos) {
+    if (check != null) {
+      check.cancel(false);
+      check = null;
+    }
+    if (nanos >= 0) {
+      check = DeadlineTimer.INSTANCE.schedule(this::checkFlag, nanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Checks on the running player when their time should be up, checking again later if it
+   * isn't yet, like if the time source is behind the timer's.
+   */
+  private void checkFlag() {
+    synchronized (this) {
+      if (running >= 0 && flagged < 0) {
+        long left = nanosLeft(running);
+        if (left > 0) {
+          scheduleCheck(Math.max(left, TimeUnit.MILLISECONDS.toNanos(1)));
+          return;
+        }
+        flagged = running;
+        remaining[running] = 0;
+      }
+    }
+    tellIfFlagged();
+  }
+
+  /**
+   * Tells the listeners who flagged, if someone did and they weren't told yet. Called outside
+   * the lock, so listeners can ask the clock anything.
+   */
+  private void tellIfFlagged() {
+    boolean black;
+    synchronized (this) {
+      if (flagged < 0 || told) {
+        return;
+      }
+      told = true;
+      black = flagged == 0;
+      scheduleCheck(-1);
+    }
+    for (ClockStatus listener : listeners) {
+      listener.notifyFlag(black);
+    }
+  }
+
+  /**
+   * Charges the running player for their turn, and gives them their increment if they made it.
+   * @param now the time, from the time source.
+   */
+  private void endTurn(long now) {
+    if (running < 0 || flagged >= 0) {
+      return;
+    }
+    remaining[running] -= now - turnStart;
+    if (remaining[running] < 0) {
+      flagged = running;
+      remaining[running] = 0;
+    } else {
+      remaining[running] += incrementNanos;
+    }
+  }
+
+  /**
+   * Whether a player has run out of time. A player whose time runs out on their turn has
+   * flagged from then on, even if nobody asked at the time.
+   * @param black true for black, false for white.
+   * @return true iff that player flagged.
+   */
+  public boolean hasFlagged(boolean black) {
+    int player = black ? 0 : 1;
+    boolean flag;
+    synchronized (this) {
+      if (flagged < 0 && running == player && nanosLeft(player) <= 0) {
+        flagged = player;
+        remaining[player] = 0;
+      }
+      flag = flagged == player;
+    }
+    tellIfFlagged();
+    return flag;
+  }
+
+  /**
+   * The time a player has left, counting the turn they're on.
+   * @param player 0 for black, 1 for white
+   * @return the time left, in nanoseconds; negative if they're out of time.
+   */
+  private long nanosLeft(int player) {
+    if (running == player && flagged < 0) {
+      return remaining[player] - (nanoTime.getAsLong() - turnStart);
+    }
+    return remaining[player];
+  }
+
+  @Override
+  public synchronized long getRemainingMillis(boolean black) {
+    return Math.max(0, nanosLeft(black ? 0 : 1)) / 1_000_000;
+  }
+
+  @Override
+  public long getIncrementMillis() {
+    return incrementNanos / 1_000_000;
+  }
+
+  /**
+   * How long the player whose turn it is should think. With a time for every move, that's most
+   * of it; otherwise it's an even share of their time over the moves they probably have left,
+   * about half the empty tiles, plus their increment.
+   * @param board the board the move is being made for
+   * @return the time to think, in milliseconds; at least 1.
+   */
+  @Override
+  public synchronized long getMoveBudget(ObservableReversiModel board) {
+    long left = getRemainingMillis(board.isBlackTurn());
+    long budget = left;
+    if (!perMove) {
+      long movesLeft = Math.max(MIN_MOVES_LEFT, (board.getEmptyCount() + 1) / 2);
+      budget = left / movesLeft + getIncrementMillis();
+    }
+    return Math.max(1, Math.min(budget, left - Math.max(MARGIN_MILLIS, left / 10)));
+  }
+}
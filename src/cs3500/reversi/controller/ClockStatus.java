@@ -0,0 +1,13 @@
+package cs3500.reversi.controller;
+
+/**
+ * Requirements to be a listener for a game's {@link ChessClock}.
+ */
+public interface ClockStatus {
+  /**
+   * Notification served by the clock once a player runs out of time, which ends the game. Served
+   * once, on whichever thread noticed: the clock's timer, or a thread asking the clock.
+   * @param black true iff black ran out of time.
+   */
+  void notifyFlag(boolean black);
+}
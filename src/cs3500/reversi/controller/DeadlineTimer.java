@@ -0,0 +1,27 @@
+package cs3500.reversi.controller;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * The one thread that interrupts robots at their deadlines and checks clocks for players who ran
+ * out of time, for every game. Only made once something needs it.
+ */
+final class DeadlineTimer {
+  static final ScheduledThreadPoolExecutor INSTANCE = makeTimer();
+
+  private DeadlineTimer() {
+    // just a holder for the thread.
+  }
+
+  private static ScheduledThreadPoolExecutor makeTimer() {
+    ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, task -> {
+      Thread thread = new Thread(task, "reversi-timer");
+      // don't keep the program running once the game is closed.
+      thread.setDaemon(true);
+      return thread;
+    });
+    // most robots answer well before their deadline, so drop their timers right away.
+    timer.setRemoveOnCancelPolicy(true);
+    return timer;
+  }
+}
@@ -0,0 +1,440 @@
+package cs3500.reversi.controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import cs3500.reversi.model.MoveResult;
+import cs3500.reversi.model.ObservableReversiModel;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.view.ReversiView;
+
+/**
+ * Runs many games at once in one program, each with its own model, controllers and players, and
+ * no windows, then tears each one down when it ends.
+ * Games are split between a few shards, each a single thread that runs the games on it one
+ * event at a time, so a game's model is only ever touched by its shard's thread. Robots think on
+ * a pool of a fixed size shared by every game, and hand their moves back to their game's shard.
+ * Each game is charged a rough estimate of the memory it holds. Once there are as many games, or
+ * as much memory charged, as allowed, opening another waits for one to end, so callers slow down
+ * instead of the program running out of memory or queueing more thinking than it can do.
+ */
+public final class GameSessionManager {
+  /**
+   * Makes one of the players in a game.
+   */
+  public interface Seat {
+    /**
+     * Makes a player for a new game, called on the game's shard.
+     * @param model    the game's model
+     * @param black    true iff the player plays black
+     * @param gameLoop the game's shard; a player answering from another thread should hand
+     *                 its moves back here, like a {@link MachinePlayer} thinking in the background
+     * @param thinker  the pool shared by every game to think on
+     * @return the player.
+     */
+    GenericPlayer sit(ObservableReversiModel model, boolean black, Executor gameLoop,
+                      Executor thinker);
+  }
+
+  // a rough guess of the memory every game holds apart from its board: the controllers, the
+  // players, the listeners and the game's entry here, in bytes.
+  static final long SESSION_BYTES = 1024;
+  // and for every tile of the board: the bitsets, the history and the lists of moves. Measured
+  // on finished games with simple robots, rounded up: about 35 a tile on hex boards.
+  static final long BYTES_PER_CELL = 40;
+  // the copies of the board robots think on, which are as big as the board apart from the
+  // history: two for the one whose turn it is (to search, and for the fallback move), and one
+  // for the other pondering. Charged to every game, since players don't say whether they copy.
+  static final int BOARD_COPIES = 3;
+
+  private final ExecutorService[] shards;
+  private final ExecutorService thinkers;
+  private final int maxSessions;
+  private final long maxBytes;
+  // the games going on, by id; guarded by this, like the rest.
+  private final Map<Long, Session> sessions = new HashMap<>();
+  private long usedBytes;
+  private long nextId;
+  private boolean shutdown;
+
+  /**
+   * Constructs a manager with no games going on.
+   * @param shards      how many threads run games
+   * @param thinkers    how many threads robots think on
+   * @param maxSessions how many games can go on at once
+   * @param maxBytes    how much memory the games can hold at once, in bytes, going by
+   *                    {@link #estimateBytes}
+   * @throws IllegalArgumentException if any of them is less than 1.
+   */
+  public GameSessionManager(int shards, int thinkers, int maxSessions, long maxBytes) {
+    if (shards < 1 || thinkers < 1 || maxSessions < 1 || maxBytes < 1) {
+      throw new IllegalArgumentException("Need threads, and room for at least one game!");
+    }
+    this.shards = new ExecutorService[shards];
+    for (int i = 0; i < shards; i++) {
+      String name = "session-shard-" + i;
+      this.shards[i] = Executors.newSingleThreadExecutor(task -> new Thread(task, name));
+    }
+    this.thinkers = Executors.newFixedThreadPool(thinkers,
+        task -> new Thread(task, "session-thinker"));
+    this.maxSessions = maxSessions;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Starts a game, waiting for room if there are already too many going on.
+   * @param model       the board to play on, which nothing else should use
+   * @param black       makes the black player
+   * @param white       makes the white player
+   * @param playerBytes the memory the players hold, like their transposition tables, in bytes
+   * @param waitMillis  how long to wait for room, in milliseconds
+   * @return the game, already started on its shard.
+   * @throws IllegalArgumentException if anything is null, or the game could never fit.
+   * @throws IllegalStateException    if there's still no room after waiting, or the manager
+   *                                  was shut down.
+   * @throws InterruptedException     if interrupted while waiting.
+   */
+  public Session open(ReversiModel model, Seat black, Seat white, long playerBytes,
+                      long waitMillis) throws InterruptedException {
+    return open(model, black, white, playerBytes, waitMillis, null);
+  }
+
+  /**
+   * Starts a timed game, like above. It ends as soon as a player runs out of time, even if they
+   * never answer. Robots that should budget their moves from the clock get it from their seat,
+   * like a {@link MachinePlayer} made with the clock.
+   * @param model       the board to play on, which nothing else should use
+   * @param black       makes the black player
+   * @param white       makes the white player
+   * @param playerBytes the memory the players hold, like their transposition tables, in bytes
+   * @param waitMillis  how long to wait for room, in milliseconds
+   * @param clock       the game's clock, not yet running, or null if the game isn't timed
+   * @return the game, already started on its shard.
+   * @throws IllegalArgumentException if anything but the clock is null, or the game could
+   *                                  never fit.
+   * @throws IllegalStateException    if there's still no room after waiting, or the manager
+   *                                  was shut down.
+   * @throws InterruptedException     if interrupted while waiting.
+   */
+  public Session open(ReversiModel model, Seat black, Seat white, long playerBytes,
+                      long waitMillis, ChessClock clock) throws InterruptedException {
+    if (model == null || black == null || white == null || playerBytes < 0) {
+      throw new IllegalArgumentException("Need a board and two players!");
+    }
+    long bytes = estimateBytes(model) + playerBytes;
+    if (bytes > maxBytes) {
+      throw new IllegalArgumentException("This game would never fit!");
+    }
+    Session session;
+    synchronized (this) {
+      long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+      while (!shutdown && (sessions.size() >= maxSessions || usedBytes + bytes > maxBytes)) {
+        long left = end - System.nanoTime();
+        if (left <= 0) {
+          throw new IllegalStateException("Too many games going on!");
+        }
+        TimeUnit.NANOSECONDS.timedWait(this, left);
+      }
+      if (shutdown) {
+        throw new IllegalStateException("The manager was shut down!");
+      }
+      long id = nextId++;
+      session = new Session(id, model, clock, bytes, shards[(int) (id % shards.length)]);
+      sessions.put(id, session);
+      usedBytes += bytes;
+    }
+    session.start(black, white);
+    return session;
+  }
+
+  /**
+   * Guesses how much memory a game on a board holds, apart from what its players keep between
+   * turns, like their transposition tables: the board, and the copies of it robots think on.
+   * @param model the board
+   * @return the estimate, in bytes.
+   */
+  public static long estimateBytes(ObservableReversiModel model) {
+    return SESSION_BYTES + BYTES_PER_CELL * model.getCellCount() * (1 + BOARD_COPIES);
+  }
+
+  /**
+   * How many games are going on.
+   * @return the number of games opened and not yet ended.
+   */
+  public synchronized int getSessionCount() {
+    return sessions.size();
+  }
+
+  /**
+   * How much memory the games going on are charged for.
+   * @return the total, in bytes.
+   */
+  public synchronized long getUsedBytes() {
+    return usedBytes;
+  }
+
+  /**
+   * Ends every game going on and stops the threads. Nothing more can be opened after.
+   */
+  public void shutdown() {
+    List<Session> open;
+    synchronized (this) {
+      shutdown = true;
+      open = new ArrayList<>(sessions.values());
+      notifyAll();
+    }
+    for (Session session : open) {
+      session.close();
+    }
+    for (ExecutorService shard : shards) {
+      shard.shutdownNow();
+    }
+    thinkers.shutdownNow();
+  }
+
+  /**
+   * Forgets a game that ended, making room for another.
+   * @param session the game
+   */
+  private synchronized void release(Session session) {
+    if (sessions.remove(session.id) != null) {
+      usedBytes -= session.bytes;
+      notifyAll();
+    }
+  }
+
+  /**
+   * One game going on, on one of the shards.
+   */
+  public final class Session implements ModelStatus {
+    private final long id;
+    private final ReversiModel model;
+    // the game's clock, or null if it isn't timed.
+    private final ChessClock clock;
+    private final long bytes;
+    // runs the game's events on its shard, dropping them once the game has ended.
+    private final Executor loop;
+    private final CompletableFuture<Session> end = new CompletableFuture<>();
+    // the players, once they're made on the shard; stopped when the game ends. Guarded by this.
+    private final List<GenericPlayer> players = new ArrayList<>();
+    private volatile boolean ended;
+    // the final score, set when the game is over.
+    private volatile int blackScore;
+    private volatile int whiteScore;
+
+    private Session(long id, ReversiModel model, ChessClock clock, long bytes,
+                    ExecutorService shard) {
+      this.id = id;
+      this.model = model;
+      this.clock = clock;
+      this.bytes = bytes;
+      this.loop = task -> {
+        if (!ended) {
+          shard.execute(() -> {
+            if (ended) {
+              return;
+            }
+            try {
+              task.run();
+            } catch (RuntimeException e) {
+              // a player broke, so the game can't go on.
+              finish(e);
+            }
+          });
+        }
+      };
+    }
+
+    /**
+     * Sets up the players and controllers on the shard, and starts the game.
+     * @param black makes the black player
+     * @param white makes the white player
+     */
+    private void start(Seat black, Seat white) {
+      loop.execute(() -> {
+        model.addListener(this);
+        new ReversiController(model, seat(black.sit(model, true, loop, thinkers)),
+            new Headless(this), clock, loop);
+        new ReversiController(model, seat(white.sit(model, false, loop, thinkers)),
+            new Headless(this), clock, loop);
+        model.startGame();
+      });
+    }
+
+    /**
+     * Keeps track of a player, to stop them when the game ends.
+     * @param player the player
+     * @return the player, stopped already if the game ended while they were being made.
+     */
+    private synchronized GenericPlayer seat(GenericPlayer player) {
+      players.add(player);
+      if (ended) {
+        player.stop();
+      }
+      return player;
+    }
+
+    /**
+     * Ends the game once it's over.
+     * @param isBlackTurn true iff it's now black's turn.
+     */
+    @Override
+    public void notifyTurn(boolean isBlackTurn) {
+      if (model.isGameOver()) {
+        blackScore = model.getBlackScore();
+        whiteScore = model.getWhiteScore();
+        finish(null);
+      }
+    }
+
+    /**
+     * Nothing to do here, the game can only end when the turn changes.
+     * @param result the tile placed, the discs flipped and the new scores.
+     */
+    @Override
+    public void notifyMove(MoveResult result) {
+      // the turn changes right after.
+    }
+
+    /**
+     * Runs something on the game's shard, like a move from a player somewhere else. Dropped if
+     * the game has ended.
+     * @param task what to run; can use the game's model and players
+     */
+    public void execute(Runnable task) {
+      loop.execute(task);
+    }
+
+    /**
+     * Ends the game early, leaving it as it is, and stops its players thinking. Nothing more runs
+     * on it after whatever is running now.
+     */
+    public void close() {
+      finish(new CancellationException("The game was closed."));
+    }
+
+    /**
+     * Ends the game, stops its players and its clock, and makes room for another, once.
+     * @param failure why the game ended early, or null if it's over
+     */
+    private synchronized void finish(Throwable failure) {
+      if (ended) {
+        return;
+      }
+      ended = true;
+      for (GenericPlayer player : players) {
+        player.stop();
+      }
+      if (clock != null) {
+        // otherwise its check on the player to move is still scheduled for a dead game.
+        clock.stop();
+      }
+      release(this);
+      if (failure == null) {
+        end.complete(this);
+      } else {
+        end.completeExceptionally(failure);
+      }
+    }
+
+    /**
+     * The game's id, unique among every game this manager opened.
+     * @return the id.
+     */
+    public long getId() {
+      return id;
+    }
+
+    /**
+     * How much memory the game is charged for.
+     * @return the estimate, in bytes.
+     */
+    public long getBytes() {
+      return bytes;
+    }
+
+    /**
+     * When the game ends.
+     * @return completes with this game when it's over, or exceptionally if it was closed
+     *         or a player failed.
+     */
+    public CompletableFuture<Session> getEnd() {
+      return end;
+    }
+
+    /**
+     * Black's score at the end of the game.
+     * @return the number of black discs, or 0 if the game isn't over.
+     */
+    public int getBlackScore() {
+      return blackScore;
+    }
+
+    /**
+     * White's score at the end of the game.
+     * @return the number of white discs, or 0 if the game isn't over.
+     */
+    public int getWhiteScore() {
+      return whiteScore;
+    }
+
+    /**
+     * Whether a player lost the game by running out of time.
+     * @param black true for black, false for white
+     * @return true iff the game is timed and that player flagged.
+     */
+    public boolean hasFlagged(boolean black) {
+      return clock != null && clock.hasFlagged(black);
+    }
+  }
+
+  /**
+   * A view for a game nobody is watching. A player who makes an invalid move won't be asked
+   * again, so it ends their game instead of leaving it stuck.
+   */
+  private static final class Headless implements ReversiView {
+    private final Session session;
+
+    private Headless(Session session) {
+      this.session = session;
+    }
+
+    @Override
+    public void render() {
+      // nothing to draw.
+    }
+
+    @Override
+    public void update() {
+      // nothing to draw.
+    }
+
+    @Override
+    public void update(MoveResult result) {
+      // nothing to draw.
+    }
+
+    @Override
+    public void invalidMove() {
+      session.finish(new IllegalStateException("A player made an invalid move."));
+    }
+
+    @Override
+    public void notYourTurn() {
+      // a move for an old position, the player is asked again on their turn.
+    }
+
+    @Override
+    public void addListener(PlayerActions s) {
+      // nobody to click anything.
+    }
+  }
+}
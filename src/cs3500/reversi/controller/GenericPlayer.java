@@ -20,4 +20,10 @@ public interface GenericPlayer {
    * @param p the subscriber to receive notifications.
    */
   void addListener(PlayerActions p);
+
+  /**
+   * Tells the player their game is over for them, like when it's closed early, so they stop
+   * thinking about it and don't ask for any more moves.
+   */
+  void stop();
 }
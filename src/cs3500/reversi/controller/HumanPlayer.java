@@ -40,4 +40,12 @@ public class HumanPlayer implements GenericPlayer {
   public void addListener(PlayerActions s) {
     // again, this is only really useful for machines. the player will use the GUI.
   }
+
+  /**
+   * Nothing to stop, people do their thinking elsewhere.
+   */
+  @Override
+  public void stop() {
+    // they can just close the window.
+  }
 }
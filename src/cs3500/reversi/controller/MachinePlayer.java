@@ -1,28 +1,77 @@
 package cs3500.reversi.controller;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.MoveResult;
 import cs3500.reversi.model.ObservableReversiModel;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.strategy.GameClock;
 import cs3500.reversi.strategy.InFallibleStrat;
+import cs3500.reversi.strategy.MaximizeFlips;
 
 /**
  * Represents a Machine player for a game of reversi, using a customizable strategy and playing
  * with a set color against an opponent through a controller.
+ * By default the robot thinks on whatever thread tells it it's their turn. Given executors, it
+ * thinks on a copy of the board on one of them instead, and hands its move back to the game
+ * on the other, so the thread running the game (like the Swing event thread) is never held up.
+ * Then a robot that's still thinking at its deadline, counted from when it starts thinking, is
+ * interrupted, which makes the searching strategies give back the best move they've found so
+ * far; if it still hasn't answered a moment later, it plays the move that flips the most discs
+ * instead.
+ * A robot thinking in the background can also ponder: while the opponent is thinking, it works
+ * out its answers to the opponent's likeliest replies, on a copy of the board, and plays the
+ * one for the reply that was made as soon as it's its turn.
  */
-public class MachinePlayer implements GenericPlayer {
+public class MachinePlayer implements GenericPlayer, ModelStatus {
+  // how long a strategy has to answer after being interrupted, in milliseconds.
+  private static final long GRACE_MILLIS = 100;
+
   // the strategy to be used.
   private final InFallibleStrat strategy;
   // what color this robot is playing as.
   private final boolean isBlack;
   // the model the robot is using to calculate its moves.
   private final ObservableReversiModel model;
+  // where the strategy runs and where moves are handed back to the game, or null to think on
+  // the thread that says it's this robot's turn.
+  private final Executor thinker;
+  private final Executor gameLoop;
+  // how long the strategy gets for each move, in milliseconds.
+  private final long deadline;
+  // the game's clock, which can cut the deadline short, or null if the game isn't timed.
+  private final GameClock clock;
+  // how many of the opponent's replies to ponder, or 0 not to.
+  private final int ponder;
+  // the pondering going on during the opponent's turn, or null; only set on the game loop.
+  private volatile Ponder pondering;
+  // the last turn thought about in the background, or null; only set on the game loop.
+  private volatile Turn thinking;
+  // set once the robot is stopped, from any thread.
+  private volatile boolean stopped;
+  // keeps the strategy to one search at a time, since pondering and thinking share it. Waited
+  // for interruptibly, so a robot stuck behind a search that won't stop still meets its deadline.
+  private final Lock searching = new ReentrantLock();
   // the list of subscribers to be notified when the robot decides on a move.
   Set<PlayerActions> subscribers = new HashSet<>();
 
   /**
-   * Constructs a machine player.
+   * Constructs a machine player that thinks on the thread that says it's their turn.
    * @param black the color the machine will play for.
    * @param s the strategy the machine will use.
    * @param m the model the machine will make decisions on.
@@ -31,14 +80,132 @@ public class MachinePlayer implements GenericPlayer {
     this.isBlack = black;
     this.strategy = s;
     this.model = m;
+    this.thinker = null;
+    this.gameLoop = null;
+    this.deadline = 0;
+    this.ponder = 0;
+    this.clock = null;
+  }
+
+  /**
+   * Constructs a machine player that thinks in the background. Many robots can share the same
+   * executors, since none of them blocks a thread while waiting.
+   * @param black    the color the machine will play for.
+   * @param s        the strategy the machine will use.
+   * @param m        the model the machine will make decisions on.
+   * @param thinker  where the strategy runs.
+   * @param gameLoop where moves are handed back to the controller; should be the thread the
+   *                 game runs on, like {@code SwingUtilities::invokeLater}.
+   * @param deadline how long the strategy gets for each move, in milliseconds.
+   */
+  public MachinePlayer(boolean black, InFallibleStrat s, ObservableReversiModel m,
+                       Executor thinker, Executor gameLoop, long deadline) {
+    this(black, s, m, thinker, gameLoop, deadline, 0, null);
+  }
+
+  /**
+   * Constructs a machine player that thinks in the background, in a timed game. It gets the
+   * less of the deadline and the time the clock gives it for the move.
+   * @param black    the color the machine will play for.
+   * @param s        the strategy the machine will use.
+   * @param m        the model the machine will make decisions on.
+   * @param thinker  where the strategy runs.
+   * @param gameLoop where moves are handed back to the controller; should be the thread the
+   *                 game runs on, like {@code SwingUtilities::invokeLater}.
+   * @param deadline the most the strategy gets for each move, in milliseconds.
+   * @param clock    the game's clock.
+   */
+  public MachinePlayer(boolean black, InFallibleStrat s, ObservableReversiModel m,
+                       Executor thinker, Executor gameLoop, long deadline, GameClock clock) {
+    this(black, s, m, thinker, gameLoop, deadline, 0, clock);
+    if (clock == null) {
+      throw new IllegalArgumentException("Need a clock!");
+    }
+  }
+
+  /**
+   * Makes a machine player that thinks in the background, and ponders during the opponent's
+   * turn. The opponent's replies are guessed in order of how many discs they flip. The player
+   * listens to the model to know when the opponent's turn starts.
+   * @param black    the color the machine will play for.
+   * @param s        the strategy the machine will use.
+   * @param m        the model the machine will make decisions on.
+   * @param thinker  where the strategy runs, pondering included.
+   * @param gameLoop where moves are handed back to the controller; should be the thread the
+   *                 game runs on, like {@code SwingUtilities::invokeLater}.
+   * @param deadline how long the strategy gets for each move, in milliseconds.
+   * @param ponder   how many of the opponent's replies to ponder, or 0 not to.
+   * @return the player, already listening to the model if it ponders.
+   */
+  public static MachinePlayer pondering(boolean black, InFallibleStrat s,
+                                        ObservableReversiModel m, Executor thinker,
+                                        Executor gameLoop, long deadline, int ponder) {
+    MachinePlayer player =
+            new MachinePlayer(black, s, m, thinker, gameLoop, deadline, ponder, null);
+    if (ponder > 0) {
+      m.addListener(player);
+    }
+    return player;
+  }
+
+  /**
+   * Constructs a machine player that thinks in the background, and can ponder once it's
+   * listening to the model.
+   * @param black    the color the machine will play for.
+   * @param s        the strategy the machine will use.
+   * @param m        the model the machine will make decisions on.
+   * @param thinker  where the strategy runs, pondering included.
+   * @param gameLoop where moves are handed back to the controller; should be the thread the
+   *                 game runs on, like {@code SwingUtilities::invokeLater}.
+   * @param deadline how long the strategy gets for each move, in milliseconds.
+   * @param ponder   how many of the opponent's replies to ponder, or 0 not to.
+   * @param clock    the game's clock, or null if it isn't timed.
+   */
+  private MachinePlayer(boolean black, InFallibleStrat s, ObservableReversiModel m,
+                        Executor thinker, Executor gameLoop, long deadline, int ponder,
+                        GameClock clock) {
+    if (thinker == null || gameLoop == null || deadline <= 0 || ponder < 0) {
+      throw new IllegalArgumentException("Need somewhere to think, a game loop, and a deadline!");
+    }
+    this.isBlack = black;
+    this.strategy = s;
+    this.model = m;
+    this.thinker = thinker;
+    this.gameLoop = gameLoop;
+    this.deadline = deadline;
+    this.ponder = ponder;
+    this.clock = clock;
   }
 
   /**
    * Picks a move for the current board using the strategy in the constructor and asks
-   * the controller to make the move.
+   * the controller to make the move. Passes right away if there are no legal moves.
    */
   @Override
   public void yourTurn() {
+    if (stopped) {
+      return;
+    }
+    Optional<Coordinate> pondered = stopPondering();
+    if (pondered != null) {
+      post(model.getPositionHash(), pondered);
+      return;
+    }
+    if (model.getLegalMoves().isEmpty()) {
+      for (PlayerActions s : subscribers) {
+        s.requestPass();
+      }
+      return;
+    }
+    if (thinker != null) {
+      thinking = new Turn();
+      thinking.start();
+      if (stopped) {
+        // stopped while the turn was being set up, after it looked for one to cancel.
+        thinking.cancel();
+      }
+      return;
+    }
     try {
       Coordinate move = strategy.chooseMove(model);
       for (PlayerActions s : subscribers) {
@@ -68,4 +235,277 @@ public class MachinePlayer implements GenericPlayer {
   public void addListener(PlayerActions s) {
     this.subscribers.add(s);
   }
+
+  /**
+   * Starts pondering once it's the opponent's turn, if this robot ponders. Whose turn it is
+   * comes from the model, the board pondering starts from, rather than from the notification.
+   * @param isBlackTurn true iff it's now black's turn.
+   */
+  @Override
+  public void notifyTurn(boolean isBlackTurn) {
+    if (ponder == 0 || model.isBlackTurn() == isBlack || model.isGameOver()) {
+      return;
+    }
+    stopPondering();
+    if (!model.getLegalMoves().isEmpty() && !stopped) {
+      Ponder next = new Ponder();
+      pondering = next;
+      thinker.execute(next::run);
+      if (stopped) {
+        next.cancel();
+      }
+    }
+  }
+
+  /**
+   * Nothing to do here, pondering starts when the turn changes.
+   * @param result the tile placed, the discs flipped and the new scores.
+   */
+  @Override
+  public void notifyMove(MoveResult result) {
+    // the turn changes right after.
+  }
+
+  /**
+   * Stops thinking and pondering, interrupting the strategy if it's searching, and drops any
+   * move it comes up with. Safe to call from any thread.
+   */
+  @Override
+  public void stop() {
+    stopped = true;
+    Turn turn = thinking;
+    if (turn != null) {
+      turn.cancel();
+    }
+    Ponder ponder = pondering;
+    if (ponder != null) {
+      ponder.cancel();
+    }
+  }
+
+  /**
+   * Stops any pondering, and looks up what it found for the current position.
+   * @return the move pondered for the current position, empty to pass, or null if it wasn't
+   *         pondered.
+   */
+  private Optional<Coordinate> stopPondering() {
+    if (pondering == null) {
+      return null;
+    }
+    Ponder ponder = pondering;
+    ponder.cancel();
+    Optional<Coordinate> move = ponder.answers.get(model.getPositionHash());
+    pondering = null;
+    // a different position with the same hash is very unlikely, but can't be allowed to cheat.
+    if (move != null && move.isPresent() && !model.isLegal(move.get())) {
+      return null;
+    }
+    return move;
+  }
+
+  /**
+   * Hands a move back to the game loop, to ask the controller to make it there.
+   * @param hash the position the move is for
+   * @param move the move, or empty to pass
+   */
+  private void post(long hash, Optional<Coordinate> move) {
+    gameLoop.execute(() -> {
+      // the game may have moved on while this robot was thinking, like if it was undone.
+      if (stopped || model.isGameOver() || model.getPositionHash() != hash) {
+        return;
+      }
+      for (PlayerActions s : subscribers) {
+        if (move.isPresent()) {
+          s.requestMove(move.get());
+        } else {
+          s.requestPass();
+        }
+      }
+    });
+  }
+
+  /**
+   * One turn of thinking in the background. Whichever of the strategy and the fallback answers
+   * first is the move; the other is ignored.
+   */
+  private final class Turn {
+    // the position being thought about, so an answer for an old position isn't played.
+    private final long hash = model.getPositionHash();
+    // copies of the board for the strategy and the fallback, made while the game is waiting.
+    private final ReversiModel board = model.copy();
+    private final ReversiModel spare = model.copy();
+    private final AtomicBoolean answered = new AtomicBoolean();
+    // the thread running the strategy, or null if it isn't running; guarded by this.
+    private Thread worker;
+    // the timers, cancelled once the turn is answered.
+    private volatile ScheduledFuture<?> interrupt;
+    private volatile ScheduledFuture<?> fallback;
+
+    /**
+     * Starts thinking once there's a thread free for it.
+     */
+    void start() {
+      thinker.execute(this::think);
+    }
+
+    /**
+     * Sets the timers for the deadline and runs the strategy, so the time spent waiting for a
+     * thread isn't taken out of the strategy's. The fallback runs on the common pool, so a slow
+     * one doesn't hold up every other robot's timers.
+     */
+    private void think() {
+      synchronized (this) {
+        if (answered.get()) {
+          return;
+        }
+        worker = Thread.currentThread();
+      }
+      // a robot on the clock can't take longer than the clock gives it for the move.
+      long budget = clock == null ? deadline : Math.min(deadline, clock.getMoveBudget(spare));
+      interrupt = DeadlineTimer.INSTANCE.schedule(this::interrupt, budget, TimeUnit.MILLISECONDS);
+      fallback = DeadlineTimer.INSTANCE.schedule(() -> ForkJoinPool.commonPool().execute(
+              () -> answer(new MaximizeFlips().chooseMove(spare))),
+              budget + GRACE_MILLIS, TimeUnit.MILLISECONDS);
+      Optional<Coordinate> move;
+      try {
+        searching.lockInterruptibly();
+        try {
+          move = choose(board);
+        } finally {
+          searching.unlock();
+        }
+      } catch (InterruptedException e) {
+        // the deadline came before the pondering let go of the strategy, the fallback answers.
+        return;
+      } finally {
+        synchronized (this) {
+          worker = null;
+          // the interrupt was for this turn, not for whatever the thread runs next.
+          Thread.interrupted();
+        }
+      }
+      answer(move);
+    }
+
+    /**
+     * Gives up on the turn: it won't be answered, and the strategy is interrupted if it's
+     * thinking.
+     */
+    void cancel() {
+      if (answered.compareAndSet(false, true)) {
+        cancelTimers();
+      }
+      interrupt();
+    }
+
+    /**
+     * Tells the strategy its time is up, if it's still thinking.
+     */
+    private synchronized void interrupt() {
+      if (worker != null) {
+        worker.interrupt();
+      }
+    }
+
+    /**
+     * Hands a move back to the game, if this turn hasn't been answered yet.
+     * @param move the move, or empty to pass
+     */
+    private void answer(Optional<Coordinate> move) {
+      if (!answered.compareAndSet(false, true)) {
+        return;
+      }
+      cancelTimers();
+      post(hash, move);
+    }
+
+    /**
+     * Drops the timers, once the turn is answered.
+     */
+    private void cancelTimers() {
+      if (interrupt != null) {
+        interrupt.cancel(false);
+      }
+      if (fallback != null) {
+        fallback.cancel(false);
+      }
+    }
+  }
+
+  /**
+   * Runs the strategy.
+   * @param board the board to choose on
+   * @return the move, or empty to pass.
+   */
+  private Optional<Coordinate> choose(ReversiModel board) {
+    try {
+      return Optional.of(strategy.chooseMove(board));
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Thinking during the opponent's turn, about the positions after each of their likeliest
+   * replies, until it's cancelled.
+   */
+  private final class Ponder {
+    // the opponent's position, copied while the game is waiting.
+    private final ReversiModel board = model.copy();
+    // this robot's move in each position pondered, by position hash; only whole searches count.
+    private final Map<Long, Optional<Coordinate>> answers = new ConcurrentHashMap<>();
+    private volatile boolean cancelled;
+    // the thread pondering, or null if it isn't running; guarded by this.
+    private Thread worker;
+
+    /**
+     * Ponders each reply in turn, unless it was cancelled while waiting to start.
+     */
+    void run() {
+      synchronized (this) {
+        if (cancelled) {
+          return;
+        }
+        worker = Thread.currentThread();
+      }
+      try {
+        List<Coordinate> replies = new ArrayList<>(board.getLegalMoves());
+        replies.sort(Comparator.comparingInt(board::potentialScore).reversed());
+        searching.lockInterruptibly();
+        try {
+          for (Coordinate reply : replies.subList(0, Math.min(ponder, replies.size()))) {
+            board.move(reply);
+            Optional<Coordinate> move = board.getLegalMoves().isEmpty() ? Optional.empty()
+                    : choose(board);
+            long hash = board.getPositionHash();
+            board.undo();
+            if (cancelled) {
+              // a search cut short isn't the strategy's real answer.
+              break;
+            }
+            answers.put(hash, move);
+          }
+        } finally {
+          searching.unlock();
+        }
+      } catch (InterruptedException e) {
+        // cancelled before it got to start.
+      } finally {
+        synchronized (this) {
+          worker = null;
+          Thread.interrupted();
+        }
+      }
+    }
+
+    /**
+     * Stops pondering, interrupting the strategy if it's in the middle of a search.
+     */
+    synchronized void cancel() {
+      cancelled = true;
+      if (worker != null) {
+        worker.interrupt();
+      }
+    }
+  }
 }
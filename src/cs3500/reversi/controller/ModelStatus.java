@@ -1,5 +1,7 @@
 package cs3500.reversi.controller;
 
+import cs3500.reversi.model.MoveResult;
+
 /**
  * Requirements to be a listener for the model's status.
  */
@@ -9,4 +11,10 @@ public interface ModelStatus {
    * @param isBlackTurn true iff it's now black's turn.
    */
   void notifyTurn(boolean isBlackTurn);
+
+  /**
+   * Notification served by the model after a move is made, before the turn changes.
+   * @param result the tile placed, the discs flipped and the new scores.
+   */
+  void notifyMove(MoveResult result);
 }
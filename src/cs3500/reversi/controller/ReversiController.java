@@ -1,18 +1,33 @@
 package cs3500.reversi.controller;
 
+import java.util.concurrent.Executor;
+
 import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.MoveResult;
 import cs3500.reversi.model.ReversiModel;
 import cs3500.reversi.view.ReversiView;
 
 /**
  * Represents a normal controller.
+ * Given a {@link ChessClock}, shared with the other player's controller, it also keeps time:
+ * the clock switches to whoever's turn it is, and a player who asks for a move or a pass after
+ * their time has run out forfeits instead. After either player forfeits, the game is over as far
+ * as the controllers are concerned, whatever the board says. The clock tells the controllers as
+ * soon as someone runs out of time, and they end the game on the model, on the game's thread,
+ * so every listener finds it over.
  */
-public class ReversiController implements Controller {
+public class ReversiController implements Controller, ClockStatus {
   ReversiModel model;
   ReversiView view;
   GenericPlayer player;
   boolean started = false;
   boolean blackTurn = true;
+  // whether the view was already updated for the move that changed the turn.
+  boolean moveShown = false;
+  // the game's clock, or null if the game isn't timed.
+  ChessClock clock;
+  // the thread the game runs on, where running out of time is handled; only for timed games.
+  Executor gameLoop;
 
   /**
    * Constructs a controller connected to the given model, listening to notifications from the
@@ -31,23 +46,73 @@ public class ReversiController implements Controller {
     view.render();
   }
 
+  /**
+   * Constructs a controller like above, for a timed game.
+   * @param m     the model
+   * @param p     the player
+   * @param v     the view
+   * @param clock    the game's clock, the same for both players' controllers, or null if the
+   *                 game isn't timed
+   * @param gameLoop the thread the game runs on, like {@code SwingUtilities::invokeLater}
+   */
+  public ReversiController(ReversiModel m, GenericPlayer p, ReversiView v, ChessClock clock,
+                           Executor gameLoop) {
+    this(m, p, v);
+    if (clock != null && gameLoop == null) {
+      throw new IllegalArgumentException("A timed game needs a game loop!");
+    }
+    this.clock = clock;
+    this.gameLoop = gameLoop;
+    if (clock != null) {
+      clock.addListener(this);
+    }
+  }
+
   @Override
   public void notifyTurn(boolean isBlackTurn) {
     started = true;
     blackTurn = isBlackTurn;
-    if (blackTurn == player.isBlack() && !model.isGameOver()) {
-      view.update();
+    if (clock != null) {
+      if (model.isGameOver()) {
+        clock.stop();
+      } else {
+        clock.switchTo(isBlackTurn);
+      }
+    }
+    boolean shown = moveShown;
+    moveShown = false;
+    if (blackTurn == player.isBlack() && !model.isGameOver() && !timeIsUp()) {
+      // after a pass or at the start of the game, nothing has been shown yet.
+      if (!shown) {
+        view.update();
+      }
       player.yourTurn();
     }
   }
 
+  /**
+   * Shows the move on the view, which only has to re-render the tiles it changed.
+   * @param result the tile placed, the discs flipped and the new scores.
+   */
+  @Override
+  public void notifyMove(MoveResult result) {
+    view.update(result);
+    moveShown = true;
+  }
+
   @Override
   public void requestMove(Coordinate coord) {
+    if (timeIsUp()) {
+      view.update();
+      return;
+    }
     if (started && player.isBlack() != blackTurn && !model.isGameOver()) {
       view.notYourTurn();
     } else if (started) {
       try {
         model.move(coord);
+        // the view was already shown the move.
+        return;
       } catch (IllegalStateException e) {
         view.invalidMove();
       }
@@ -57,6 +122,10 @@ public class ReversiController implements Controller {
 
   @Override
   public void requestPass() {
+    if (timeIsUp()) {
+      view.update();
+      return;
+    }
     if (started && player.isBlack() != blackTurn && !model.isGameOver()) {
       view.notYourTurn();
     } else if (started && !model.isGameOver()) {
@@ -64,4 +133,27 @@ public class ReversiController implements Controller {
       view.update();
     }
   }
+
+  /**
+   * Once someone has run out of time, stops the player, ends the game on the model and shows
+   * the view the game as it was left. Called on whatever thread noticed, so it's all handed to
+   * the game's thread.
+   * @param black true iff black ran out of time.
+   */
+  @Override
+  public void notifyFlag(boolean black) {
+    gameLoop.execute(() -> {
+      player.stop();
+      model.endGame();
+      view.update();
+    });
+  }
+
+  /**
+   * Checks whether either player has run out of time, which ends the game.
+   * @return true iff the game is timed and someone flagged.
+   */
+  private boolean timeIsUp() {
+    return clock != null && (clock.hasFlagged(true) || clock.hasFlagged(false));
+  }
 }
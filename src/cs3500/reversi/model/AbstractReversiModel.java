@@ -1,8 +1,14 @@
 package cs3500.reversi.model;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import cs3500.reversi.controller.ModelStatus;
 
@@ -13,11 +19,12 @@ import cs3500.reversi.controller.ModelStatus;
  * on how to actually play reversi or use the model!
  */
 public abstract class AbstractReversiModel implements ReversiModel {
-  // represented in coordinates C,R where C is the slanted column of tiles running
-  // from the top left to the bottom right, and R is the horizontal row of tiles.
-  // not all coordinates C,R are valid, as each row of the board
-  // does not have an equal number of tiles. See isInBounds for more info.
-  protected Player[][] board;
+  // which coordinates are tiles on the board, and the rays between them.
+  // See BoardLayout and isInBounds for more info.
+  protected BoardLayout layout;
+  // the discs of each player, one bit per tile index in the layout.
+  protected long[] blackDiscs;
+  protected long[] whiteDiscs;
   // if one player has called for surrender
   protected boolean passed = false;
   protected boolean gameOver = false;
@@ -26,6 +33,31 @@ public abstract class AbstractReversiModel implements ReversiModel {
   // the offsets in the board 2d-array that represent a tile's neighbors.
   // starts clockwise from the top left.
   protected List<Coordinate> directions;
+  // the tiles each player could legally move to, one bit per tile index in the layout.
+  // kept up to date after every move, see updateLegalMoves.
+  protected long[] blackMoves;
+  protected long[] whiteMoves;
+  // the number of discs each player has, kept up to date after every move.
+  protected int blackCount = 0;
+  protected int whiteCount = 0;
+  // the Zobrist hash of the discs and whose turn it is, kept up to date after every change.
+  protected long hash = 0;
+  // the current player's legal moves, built when asked for. null if it's out of date.
+  private List<Coordinate> legalMoves;
+  // the results of checking a move, see moveStatus.
+  protected static final int LEGAL = 0;
+  protected static final int OUT_OF_BOUNDS = 1;
+  protected static final int OCCUPIED = 2;
+  protected static final int NO_CAPTURES = 3;
+  // every move and pass made on this board, so they can be undone. Each one is pushed as the
+  // tile indices it flipped, then the number of flips, the tile placed (-1 for a pass),
+  // and whether the game had been passed/over before it (bits 0 and 1).
+  private int[] history = new int[64];
+  private int historySize = 0;
+  // scratch space for the discs flipped by a move, so moving doesn't allocate.
+  private long[] flipped;
+  // scratch space for the tiles whose legality has to be rechecked after a move.
+  private long[] dirty;
 
   /**
    * No-arg constructor; Creates a default game of reversi with board size 7.
@@ -34,6 +66,57 @@ public abstract class AbstractReversiModel implements ReversiModel {
     this.directions = d;
   }
 
+  /**
+   * Sets the shape of the board and clears it. Subclasses must call this in their constructors.
+   * @param layout the layout of the board.
+   */
+  protected void setLayout(BoardLayout layout) {
+    this.layout = layout;
+    this.blackDiscs = new long[layout.words];
+    this.whiteDiscs = new long[layout.words];
+    this.blackMoves = new long[layout.words];
+    this.whiteMoves = new long[layout.words];
+    this.flipped = new long[layout.words];
+    this.dirty = new long[layout.words];
+  }
+
+  /**
+   * Copies the discs, legal moves and pass state of a model with the same layout onto this board.
+   * @param other the model being copied.
+   */
+  protected void copyBoard(AbstractReversiModel other) {
+    passed = other.passed;
+    System.arraycopy(other.blackDiscs, 0, blackDiscs, 0, blackDiscs.length);
+    System.arraycopy(other.whiteDiscs, 0, whiteDiscs, 0, whiteDiscs.length);
+    System.arraycopy(other.blackMoves, 0, blackMoves, 0, blackMoves.length);
+    System.arraycopy(other.whiteMoves, 0, whiteMoves, 0, whiteMoves.length);
+    blackCount = other.blackCount;
+    whiteCount = other.whiteCount;
+    hash = other.hash;
+  }
+
+  /**
+   * Recounts the discs, rehashes the position and recomputes the legal moves from scratch. Must be called whenever
+   * the discs are set without making a move.
+   */
+  protected void recompute() {
+    blackCount = 0;
+    whiteCount = 0;
+    for (int i = 0; i < layout.words; i++) {
+      blackCount += Long.bitCount(blackDiscs[i]);
+      whiteCount += Long.bitCount(whiteDiscs[i]);
+    }
+    hash = turn == Player.WHITE ? layout.whiteTurnKey : 0;
+    for (int cell = 0; cell < layout.cells; cell++) {
+      if (BoardLayout.get(blackDiscs, cell)) {
+        hash ^= layout.blackKeys[cell];
+      } else if (BoardLayout.get(whiteDiscs, cell)) {
+        hash ^= layout.whiteKeys[cell];
+      }
+    }
+    recomputeLegalMoves();
+  }
+
   /**
    * let players know the game has started, and it's black's turn to make a move.
    */
@@ -41,6 +124,19 @@ public abstract class AbstractReversiModel implements ReversiModel {
     notifySubscribers();
   }
 
+  /**
+   * Ends the game where it stands, like when a player runs out of time, and lets players know.
+   * Does nothing if it's already over.
+   */
+  @Override
+  public void endGame() {
+    if (gameOver) {
+      return;
+    }
+    gameOver = true;
+    notifySubscribers();
+  }
+
   /**
    * Attempts to place a piece at the given coordinate on the board.
    *
@@ -51,12 +147,102 @@ public abstract class AbstractReversiModel implements ReversiModel {
    */
   @Override
   public void move(Coordinate coordinate) {
+    placeDisc(coordinate);
+    if (!subscribers.isEmpty()) {
+      // only build a result if someone is listening, searches move without allocating.
+      notifyMove(lastMove());
+    }
+    changeTurn();
+  }
+
+  /**
+   * Attempts to place a piece at the given coordinate on the board, reporting what changed.
+   *
+   * @param coordinate The position of the new tile, if valid.
+   * @return the tile placed, the discs flipped and the new scores.
+   * @throws IllegalArgumentException if the coordinate of the move is out of bounds.
+   * @throws IllegalStateException    if the move is not allowed according to the
+   *                                  rules of the game, or is not logically possible.
+   */
+  @Override
+  public MoveResult playMove(Coordinate coordinate) {
+    placeDisc(coordinate);
+    MoveResult result = lastMove();
+    notifyMove(result);
+    changeTurn();
+    return result;
+  }
+
+  /**
+   * Places the current player's disc and flips the captured discs, without changing the turn.
+   *
+   * @param coordinate The position of the new tile, if valid.
+   * @throws IllegalArgumentException if the coordinate of the move is out of bounds.
+   * @throws IllegalStateException    if the move is not allowed.
+   */
+  private void placeDisc(Coordinate coordinate) {
     throwIfGameOver();
     validateMove(turn, coordinate);
-    directions.forEach(s -> flipAdjacentIfLegal(turn, coordinate, s));
-    board[coordinate.c][coordinate.r] = turn;
+    int cell = layout.index(coordinate.c, coordinate.r);
+    long[] own = discs(turn);
+    long[] opp = discs(opponent(turn));
+    Arrays.fill(flipped, 0);
+    int count = collectFlips(cell, own, opp, flipped);
+    for (int i = 0; i < flipped.length; i++) {
+      own[i] |= flipped[i];
+      opp[i] &= ~flipped[i];
+    }
+    BoardLayout.set(own, cell);
+    addToScore(turn, count + 1);
+    addToScore(opponent(turn), -count);
+    hash ^= turn == Player.BLACK ? layout.blackKeys[cell] : layout.whiteKeys[cell];
+    updateLegalMoves(cell, flipped);
+    for (int i = 0; i < flipped.length; i++) {
+      long word = flipped[i];
+      while (word != 0) {
+        int flip = i * 64 + Long.numberOfTrailingZeros(word);
+        hash ^= layout.blackKeys[flip] ^ layout.whiteKeys[flip];
+        push(flip);
+        word &= word - 1;
+      }
+    }
+    pushFrame(count, cell);
     passed = false;
-    changeTurn();
+  }
+
+  /**
+   * Builds the result of the move on top of the history, before the turn changes.
+   * @return the result of the last move.
+   */
+  private MoveResult lastMove() {
+    int count = history[historySize - 3];
+    int cell = history[historySize - 2];
+    int[] flips = Arrays.copyOfRange(history, historySize - 3 - count, historySize - 3);
+    return new MoveResult(layout, cell, flips, isBlackTurn(), blackCount, whiteCount);
+  }
+
+  /**
+   * Gets the tile the last move was played on, from the top of the history.
+   * @return the tile index, or -1 if the last turn was passed or nothing was played yet.
+   */
+  @Override
+  public int getLastMoveCell() {
+    return historySize == 0 ? -1 : history[historySize - 2];
+  }
+
+  /**
+   * Copies the tiles the last move flipped, straight out of the history.
+   * @param flips where to copy them; must fit every tile of the board
+   * @return how many were copied, 0 if the last turn was passed or nothing was played yet.
+   */
+  @Override
+  public int getLastFlips(int[] flips) {
+    if (historySize == 0) {
+      return 0;
+    }
+    int count = history[historySize - 3];
+    System.arraycopy(history, historySize - 3 - count, flips, 0, count);
+    return count;
   }
 
   /**
@@ -66,6 +252,7 @@ public abstract class AbstractReversiModel implements ReversiModel {
   @Override
   public void pass() {
     throwIfGameOver();
+    pushFrame(0, -1);
     if (passed) {
       gameOver = true;
     } else {
@@ -74,6 +261,95 @@ public abstract class AbstractReversiModel implements ReversiModel {
     changeTurn();
   }
 
+  /**
+   * Takes back the last move or pass made on this board, restoring the discs it flipped.
+   * Cheap enough to call after every move in a search, instead of copying the board.
+   *
+   * @throws IllegalStateException if there is nothing to undo.
+   */
+  @Override
+  public void undo() {
+    if (historySize == 0) {
+      throw new IllegalStateException("There's nothing to undo!");
+    }
+    int state = history[--historySize];
+    int cell = history[--historySize];
+    int count = history[--historySize];
+    if (cell >= 0) {
+      // the player who made the move is the one whose turn it isn't.
+      long[] own = discs(opponent(turn));
+      long[] opp = discs(turn);
+      Arrays.fill(flipped, 0);
+      for (int i = 0; i < count; i++) {
+        int flip = history[--historySize];
+        hash ^= layout.blackKeys[flip] ^ layout.whiteKeys[flip];
+        BoardLayout.set(flipped, flip);
+      }
+      for (int i = 0; i < flipped.length; i++) {
+        own[i] &= ~flipped[i];
+        opp[i] |= flipped[i];
+      }
+      BoardLayout.clear(own, cell);
+      hash ^= turn == Player.BLACK ? layout.whiteKeys[cell] : layout.blackKeys[cell];
+      addToScore(opponent(turn), -count - 1);
+      addToScore(turn, count);
+      updateLegalMoves(cell, flipped);
+    }
+    passed = (state & 1) != 0;
+    gameOver = (state & 2) != 0;
+    // taking a move back isn't a new turn, so nobody is told.
+    swapTurn();
+  }
+
+  /**
+   * Adds to a player's disc count.
+   * @param player the player
+   * @param discs  the number of discs they gained, negative if they lost discs.
+   */
+  private void addToScore(Player player, int discs) {
+    if (player == Player.BLACK) {
+      blackCount += discs;
+    } else {
+      whiteCount += discs;
+    }
+  }
+
+  /**
+   * Records the end of a move or pass in the history, after the tiles it flipped.
+   * @param count the number of tiles flipped
+   * @param cell  the tile index placed, or -1 for a pass
+   */
+  private void pushFrame(int count, int cell) {
+    push(count);
+    push(cell);
+    push((passed ? 1 : 0) | (gameOver ? 2 : 0));
+  }
+
+  /**
+   * Pushes a value onto the history, growing it if needed.
+   * @param value the value.
+   */
+  private void push(int value) {
+    if (historySize == history.length) {
+      history = Arrays.copyOf(history, history.length * 2);
+    }
+    history[historySize++] = value;
+  }
+
+  /**
+   * Returns the resulting score of making a move at a given position, without making it.
+   * Only reads the board, so several threads can score moves at once while nobody moves.
+   * @return the number of tiles flipped by the move.
+   * @throws IllegalArgumentException if the coordinate of the move is out of bounds.
+   * @throws IllegalStateException    if the move is not allowed.
+   */
+  @Override
+  public int potentialScore(Coordinate coord) {
+    throwIfGameOver();
+    validateMove(turn, coord);
+    return countFlips(layout.index(coord.c, coord.r), discs(turn), discs(opponent(turn)));
+  }
+
   /**
    * Prevents the player from doing anything if the game is already over (i.e, both players passed)
    */
@@ -91,18 +367,40 @@ public abstract class AbstractReversiModel implements ReversiModel {
    *                                  a piece on that tile.
    */
   protected void validateMove(Player player, Coordinate coordinate) {
-    // handles out of bounds moves
-    if (!isInBounds(coordinate)) {
-      throw new IllegalArgumentException("Coordinate out of bounds!");
+    switch (moveStatus(player, coordinate.c, coordinate.r)) {
+      case OUT_OF_BOUNDS:
+        throw new IllegalArgumentException("Coordinate out of bounds!");
+      case OCCUPIED:
+        throw new IllegalStateException("There is already a piece on that tile!");
+      case NO_CAPTURES:
+        throw new IllegalStateException("There are no valid moves in any direction");
+      default:
+        // the move is legal.
     }
-    // handles non-empty tile
-    if (hasPiece(coordinate)) {
-      throw new IllegalStateException("There is already a piece on that tile!");
+  }
+
+  /**
+   * Checks if playing a move at a given coordinate is valid for a given player, without throwing
+   * anything. This is just a few table lookups, see {@link #updateLegalMoves}.
+   *
+   * @param player the player moving
+   * @param c      the column of the move
+   * @param r      the row of the move
+   * @return {@link #LEGAL} if the move is legal, otherwise the reason it isn't:
+   *         {@link #OUT_OF_BOUNDS}, {@link #OCCUPIED} or {@link #NO_CAPTURES}.
+   */
+  protected int moveStatus(Player player, int c, int r) {
+    int cell = layout.index(c, r);
+    if (cell < 0) {
+      return OUT_OF_BOUNDS;
     }
-    if (directions.stream()
-            .noneMatch(s -> hasMoveInDirection(player, coordinate, s, false))) {
-      throw new IllegalStateException("There are no valid moves in any direction");
+    if (occupied(cell)) {
+      return OCCUPIED;
     }
+    if (!BoardLayout.get(moves(player), cell)) {
+      return NO_CAPTURES;
+    }
+    return LEGAL;
   }
 
   /**
@@ -111,63 +409,192 @@ public abstract class AbstractReversiModel implements ReversiModel {
    * @return true iff the current player would be able to play their turn at the given coordinate.
    */
   public boolean isLegal(Coordinate coordinate) {
-    try {
-      validateMove(turn, coordinate);
-      return true;
-    } catch (IllegalArgumentException | IllegalStateException ignored) {
-      return false;
+    return moveStatus(turn, coordinate.c, coordinate.r) == LEGAL;
+  }
+
+  /**
+   * Checks if the current player would be able to play a move at the given tile.
+   * @param cell the tile index of the potential move.
+   * @return true iff the current player would be able to play their turn at the given tile.
+   * @throws IllegalArgumentException if the tile index is out of range.
+   */
+  @Override
+  public boolean isLegal(int cell) {
+    return BoardLayout.get(moves(turn), checkCell(cell));
+  }
+
+  /**
+   * Recomputes every tile's legality for both players from scratch, see {@link #recompute}.
+   */
+  protected void recomputeLegalMoves() {
+    for (int cell = 0; cell < layout.cells; cell++) {
+      recheck(cell);
     }
+    legalMoves = null;
   }
 
   /**
-   * Attempts to flip the adjacent pieces if the move is legal at the given coordinate.
-   *
-   * @param player     the player trying to flip tiles.
-   * @param coordinate the coordinate of the new piece.
-   * @param direction  the direction that is being checked, one of six. See {@link #directions}
+   * Updates the legal moves of both players after a move. A tile's legality only depends on the
+   * discs along its rays up to the first empty tile, so only the empty tiles at the end of an
+   * unbroken line of discs running from a changed disc need to be rechecked.
+   * @param placed  the tile index of the disc that was placed
+   * @param changed the bits of the discs that were flipped
+   */
+  protected void updateLegalMoves(int placed, long[] changed) {
+    Arrays.fill(dirty, 0);
+    BoardLayout.set(dirty, placed);
+    markLinesFrom(placed);
+    for (int i = 0; i < changed.length; i++) {
+      long word = changed[i];
+      while (word != 0) {
+        markLinesFrom(i * 64 + Long.numberOfTrailingZeros(word));
+        word &= word - 1;
+      }
+    }
+    for (int i = 0; i < dirty.length; i++) {
+      long word = dirty[i];
+      while (word != 0) {
+        recheck(i * 64 + Long.numberOfTrailingZeros(word));
+        word &= word - 1;
+      }
+    }
+    legalMoves = null;
+  }
+
+  /**
+   * Marks the first empty tile in each direction from the given disc as needing a recheck.
+   * @param cell the tile index of a disc that changed.
    */
-  protected void flipAdjacentIfLegal(Player player, Coordinate coordinate, Coordinate direction) {
-    if (hasMoveInDirection(player, coordinate, direction, false)) {
-      hasMoveInDirection(player, coordinate, direction, true);
+  private void markLinesFrom(int cell) {
+    for (int[] ray : layout.rays(cell)) {
+      for (int next : ray) {
+        if (!occupied(next)) {
+          BoardLayout.set(dirty, next);
+          break;
+        }
+      }
     }
   }
 
   /**
-   * checks if there is a valid move in the given direction from the given coordinate.
-   * modifies the board if called with modify == true.
-   * @param player the player placing a piece down
-   * @param coord  the coordinate of the new piece
-   * @param dir    the direction being checked for a valid move
-   * @param modify whether the pieces should be flipped when iterating, assumes
-   *               that there is already a valid move! If true, modifies the board.
-   * @return if there is a valid move in that direction.
+   * Updates whether each player could legally move to the given tile.
+   * @param cell the tile index being checked.
    */
-  protected boolean hasMoveInDirection(Player player, Coordinate coord, Coordinate dir,
-                                       boolean modify) {
-    // we can start at the neighbor tile in the given direction
-    Coordinate currCoordinate = new Coordinate(coord.c + dir.c, coord.r + dir.r);
-    // for a move to be valid, a capture has to happen, so we have to see
-    // some number of enemy pieces followed by a friendly piece.
-    boolean jumpsOpponentPiece = false;
+  private void recheck(int cell) {
+    if (!occupied(cell) && captures(cell, blackDiscs, whiteDiscs)) {
+      BoardLayout.set(blackMoves, cell);
+    } else {
+      BoardLayout.clear(blackMoves, cell);
+    }
+    if (!occupied(cell) && captures(cell, whiteDiscs, blackDiscs)) {
+      BoardLayout.set(whiteMoves, cell);
+    } else {
+      BoardLayout.clear(whiteMoves, cell);
+    }
+  }
 
-    while (isInBounds(currCoordinate)) {
-      if (!hasPiece(currCoordinate) && !currCoordinate.equals(coord)) {
-        return false;
+  /**
+   * Checks if there is a disc on the given tile.
+   * @param cell the tile index
+   * @return true iff either player has a disc there.
+   */
+  protected boolean occupied(int cell) {
+    return BoardLayout.get(blackDiscs, cell) || BoardLayout.get(whiteDiscs, cell);
+  }
+
+  /**
+   * Gets the discs belonging to a player.
+   * @param player the player
+   * @return the player's discs, one bit per tile. Not a copy!
+   */
+  protected long[] discs(Player player) {
+    return player == Player.BLACK ? blackDiscs : whiteDiscs;
+  }
+
+  /**
+   * Gets the tiles a player could legally move to.
+   * @param player the player
+   * @return the player's legal moves, one bit per tile. Not a copy!
+   */
+  protected long[] moves(Player player) {
+    return player == Player.BLACK ? blackMoves : whiteMoves;
+  }
+
+  /**
+   * Gets the other player.
+   * @param player a player
+   * @return the player's opponent.
+   */
+  protected static Player opponent(Player player) {
+    return player == Player.BLACK ? Player.WHITE : Player.BLACK;
+  }
+
+  /**
+   * Checks if a move at the given tile would capture at least one disc.
+   * @param cell the tile index of the move, see {@link #layout}
+   * @param own  the discs of the player moving
+   * @param opp  the discs of their opponent
+   * @return true iff the move captures in any direction.
+   */
+  protected boolean captures(int cell, long[] own, long[] opp) {
+    for (int[] ray : layout.rays(cell)) {
+      if (capturedAlong(ray, own, opp) > 0) {
+        return true;
       }
-      // if the piece's color matches the player's piece
-      if ((isTileBlack(currCoordinate) == (player == Player.BLACK))
-              && !currCoordinate.equals(coord)) {
-        return jumpsOpponentPiece;
+    }
+    return false;
+  }
+
+  /**
+   * Finds the discs that a move at the given tile would flip.
+   * @param cell the tile index of the move, see {@link #layout}
+   * @param own  the discs of the player moving
+   * @param opp  the discs of their opponent
+   * @param out  the bits of the flipped discs are set in here.
+   * @return the number of discs flipped.
+   */
+  protected int collectFlips(int cell, long[] own, long[] opp, long[] out) {
+    int count = 0;
+    for (int[] ray : layout.rays(cell)) {
+      int captured = capturedAlong(ray, own, opp);
+      for (int i = 0; i < captured; i++) {
+        BoardLayout.set(out, ray[i]);
       }
-      if (modify) {
-        board[currCoordinate.c][currCoordinate.r] = player;
+      count += captured;
+    }
+    return count;
+  }
+
+  /**
+   * Counts the discs that a move at the given tile would flip, without writing anything.
+   * @param cell the tile index of the move, see {@link #layout}
+   * @param own  the discs of the player moving
+   * @param opp  the discs of their opponent
+   * @return the number of discs flipped.
+   */
+  protected int countFlips(int cell, long[] own, long[] opp) {
+    int count = 0;
+    for (int[] ray : layout.rays(cell)) {
+      count += capturedAlong(ray, own, opp);
+    }
+    return count;
+  }
+
+  /**
+   * Counts the opponent discs captured along a ray: for a capture, we have to see
+   * some number of enemy pieces followed by a friendly piece.
+   * @param ray the tiles from the move to the edge of the board
+   * @param own the discs of the player moving
+   * @param opp the discs of their opponent
+   * @return the number of discs captured, 0 if there is no capture along the ray.
+   */
+  private static int capturedAlong(int[] ray, long[] own, long[] opp) {
+    for (int i = 0; i < ray.length; i++) {
+      if (!BoardLayout.get(opp, ray[i])) {
+        return BoardLayout.get(own, ray[i]) ? i : 0;
       }
-      jumpsOpponentPiece = true;
-      currCoordinate = new Coordinate(
-              currCoordinate.c + dir.c,
-              currCoordinate.r + dir.r);
     }
-    return false;
+    return 0;
   }
 
   /**
@@ -181,26 +608,58 @@ public abstract class AbstractReversiModel implements ReversiModel {
   }
 
   /**
-   * Checks if the current player has any valid moves on the board (brute force).
+   * Checks if the current player has any valid moves on the board.
    * @return true iff there is a valid move on the board and the game isn't over.
    */
   public boolean anyValidMoves() {
     if (isGameOver()) {
       return false;
     }
-    for (int r = 0; r < getBoardHeight(); r++) {
-      for (int c = 0; c < getBoardWidth(); c++) {
-        try {
-          validateMove(turn, new Coordinate(c, r));
-          return true;
-        } catch (IllegalArgumentException | IllegalStateException ignored) {
-          // do nothing
-        }
+    for (long word : moves(turn)) {
+      if (word != 0) {
+        return true;
       }
     }
     return false;
   }
 
+  /**
+   * Gets every move the current player could legally make, in topmost-leftmost order.
+   * The moves are maintained as the game is played, so this doesn't scan the board.
+   * @return the legal moves, empty if the game is over. Cannot be modified.
+   */
+  @Override
+  public List<Coordinate> getLegalMoves() {
+    if (isGameOver()) {
+      return Collections.emptyList();
+    }
+    if (legalMoves == null) {
+      List<Coordinate> moves = new ArrayList<>();
+      long[] bits = moves(turn);
+      for (int i = 0; i < bits.length; i++) {
+        long word = bits[i];
+        while (word != 0) {
+          moves.add(layout.coordinate(i * 64 + Long.numberOfTrailingZeros(word)));
+          word &= word - 1;
+        }
+      }
+      legalMoves = Collections.unmodifiableList(moves);
+    }
+    return legalMoves;
+  }
+
+  /**
+   * Checks if the given coordinate is a tile on the board (not just within the bounds of
+   * the 2d coordinate space). This is a table lookup, see {@link BoardLayout}.
+   *
+   * @param coordinate the position to check
+   * @return true if the coordinate is within bounds, false otherwise
+   */
+  @Override
+  public boolean isInBounds(Coordinate coordinate) {
+    return layout.index(coordinate.c, coordinate.r) >= 0;
+  }
+
   /**
    * Retrieves the color of the piece at a given coordinate.
    *
@@ -211,7 +670,7 @@ public abstract class AbstractReversiModel implements ReversiModel {
   @Override
   public boolean isTileBlack(Coordinate coordinate) {
     if (isInBounds(coordinate)) {
-      return board[coordinate.c][coordinate.r] == Player.BLACK;
+      return BoardLayout.get(blackDiscs, layout.index(coordinate.c, coordinate.r));
     }
     throw new IllegalArgumentException("Invalid coordinate!");
   }
@@ -223,11 +682,90 @@ public abstract class AbstractReversiModel implements ReversiModel {
    */
   public boolean hasPiece(Coordinate coordinate) {
     if (isInBounds(coordinate)) {
-      return board[coordinate.c][coordinate.r] != null;
+      return occupied(layout.index(coordinate.c, coordinate.r));
     }
     throw new IllegalArgumentException("Invalid coordinate!");
   }
 
+  /**
+   * Retrieves the color of the piece at a given tile.
+   *
+   * @param cell the tile index
+   * @return true iff there is a black piece there
+   * @throws IllegalArgumentException if the tile index is out of range
+   */
+  @Override
+  public boolean isTileBlack(int cell) {
+    return BoardLayout.get(blackDiscs, checkCell(cell));
+  }
+
+  /**
+   * Checks if the tile has a piece on it.
+   * @param cell the tile index
+   * @return false if empty, true if there's a piece.
+   * @throws IllegalArgumentException if the tile index is out of range
+   */
+  @Override
+  public boolean hasPiece(int cell) {
+    return occupied(checkCell(cell));
+  }
+
+  /**
+   * Gives the number of tiles on the board. Tiles are numbered from 0 in topmost-leftmost order.
+   * @return the number of tiles.
+   */
+  @Override
+  public int getCellCount() {
+    return layout.cells;
+  }
+
+  /**
+   * Gets the tile index of a coordinate.
+   * @param coordinate the coordinate
+   * @return the tile index, or -1 if the coordinate isn't on the board.
+   */
+  @Override
+  public int getCellIndex(Coordinate coordinate) {
+    return layout.index(coordinate.c, coordinate.r);
+  }
+
+  /**
+   * Gets the coordinate of a tile index. Every board of the same shape and size hands out
+   * the same coordinate objects, so iterating over tiles doesn't allocate.
+   * @param cell the tile index
+   * @return the coordinate of the tile.
+   * @throws IllegalArgumentException if the tile index is out of range
+   */
+  @Override
+  public Coordinate getCoordinate(int cell) {
+    return layout.coordinate(checkCell(cell));
+  }
+
+  /**
+   * Makes sure a tile index is on the board.
+   * @param cell the tile index
+   * @return the tile index.
+   * @throws IllegalArgumentException if the tile index is out of range
+   */
+  private int checkCell(int cell) {
+    if (cell < 0 || cell >= layout.cells) {
+      throw new IllegalArgumentException("Invalid tile index!");
+    }
+    return cell;
+  }
+
+  /**
+   * Gets a 64-bit Zobrist hash of the position: the discs on the board and whose turn it is.
+   * Kept up to date as the game is played, so this is free. Equal positions on boards of the
+   * same shape and size always have equal hashes, even across runs.
+   *
+   * @return the hash of the position.
+   */
+  @Override
+  public long getPositionHash() {
+    return hash;
+  }
+
   /**
    * Hides the Player enum from the interface.
    * @return whether it's the first player's turn or not.
@@ -243,7 +781,7 @@ public abstract class AbstractReversiModel implements ReversiModel {
    */
   @Override
   public int getBoardHeight() {
-    return this.board[0].length;
+    return layout.height;
   }
 
   /**
@@ -253,20 +791,29 @@ public abstract class AbstractReversiModel implements ReversiModel {
    */
   @Override
   public int getBoardWidth() {
-    return this.board.length;
+    return layout.width;
   }
 
   /**
-   * Changes the turn from white to black or vice versa.
+   * Changes the turn from white to black or vice versa, and tells the listeners.
    */
   protected void changeTurn() {
+    swapTurn();
+    // now we are notifying any modelStatus listeners!
+    notifySubscribers();
+  }
+
+  /**
+   * Changes the turn from white to black or vice versa, without telling anyone.
+   */
+  private void swapTurn() {
+    legalMoves = null;
+    hash ^= layout.whiteTurnKey;
     if (turn == Player.BLACK) {
       turn = Player.WHITE;
     } else {
       turn = Player.BLACK;
     }
-    // now we are notifying any modelStatus listeners!
-    notifySubscribers();
   }
 
   /**
@@ -276,15 +823,7 @@ public abstract class AbstractReversiModel implements ReversiModel {
    */
   @Override
   public int getBlackScore() {
-    int count = 0;
-    for (Player[] row : board) {
-      for (Player tile : row) {
-        if (tile == Player.BLACK) {
-          count += 1;
-        }
-      }
-    }
-    return count;
+    return blackCount;
   }
 
   /**
@@ -294,26 +833,69 @@ public abstract class AbstractReversiModel implements ReversiModel {
    */
   @Override
   public int getWhiteScore() {
-    int count = 0;
-    for (Player[] row : board) {
-      for (Player tile : row) {
-        if (tile == Player.WHITE) {
-          count += 1;
-        }
-      }
-    }
-    return count;
+    return whiteCount;
+  }
+
+  /**
+   * Gives the number of empty tiles left on the board.
+   *
+   * @return a whole number, the tiles no one has played on yet.
+   */
+  @Override
+  public int getEmptyCount() {
+    return layout.cells - blackCount - whiteCount;
   }
 
   // the modelStatus listeners that want notifications when the turn changes
   protected final Set<ModelStatus> subscribers = new HashSet<>();
+  // notifications waiting to be handed out, oldest first, and whether they're being handed out.
+  private final Deque<Consumer<ModelStatus>> pending = new ArrayDeque<>();
+  private boolean delivering = false;
 
   /**
    * notifies everyone in the subscription list when the turn changes.
    */
   void notifySubscribers() {
-    for (ModelStatus s : subscribers) {
-      s.notifyTurn(isBlackTurn());
+    boolean black = isBlackTurn();
+    deliver(s -> s.notifyTurn(black));
+  }
+
+  /**
+   * notifies everyone in the subscription list of what changed after a move.
+   * @param result the result of the move.
+   */
+  void notifyMove(MoveResult result) {
+    deliver(s -> s.notifyMove(result));
+  }
+
+  /**
+   * Hands a notification to every subscriber, in the order notifications were made.
+   * A robot moves while it's being told it's their turn, which makes another notification; that
+   * one waits in the queue until the current one is done, instead of being handed out from
+   * inside it. So a whole game between robots runs in this one loop, and the stack stays the
+   * same depth however long the game is.
+   * @param notification what to tell each subscriber
+   */
+  private void deliver(Consumer<ModelStatus> notification) {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    pending.add(notification);
+    if (delivering) {
+      return;
+    }
+    delivering = true;
+    try {
+      while (!pending.isEmpty()) {
+        Consumer<ModelStatus> next = pending.poll();
+        for (ModelStatus s : subscribers) {
+          next.accept(s);
+        }
+      }
+    } finally {
+      // if a subscriber threw, what's left is out of date.
+      pending.clear();
+      delivering = false;
     }
   }
 
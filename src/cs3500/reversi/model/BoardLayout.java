@@ -0,0 +1,183 @@
+package cs3500.reversi.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The shape of a board, with only its valid tiles numbered from 0 in topmost-leftmost order.
+ * Discs are stored as one bit per tile index in a long[], and for every tile the layout knows
+ * the ray of tile indices running to the edge of the board in each direction, so moves can be
+ * checked and flipped by walking tables instead of doing bounds math.
+ * Layouts are immutable and shared between every board of the same shape and size.
+ */
+final class BoardLayout {
+  // layouts that have already been built, by side length.
+  private static final Map<Integer, BoardLayout> hexagons = new ConcurrentHashMap<>();
+  private static final Map<Integer, BoardLayout> squares = new ConcurrentHashMap<>();
+
+  // the dimensions of the 2d coordinate space the tiles live in.
+  final int width;
+  final int height;
+  // the number of valid tiles.
+  final int cells;
+  // the number of longs needed to hold one bit per tile.
+  final int words;
+  // the tile index of each coordinate, stored at c * height + r. -1 if out of bounds.
+  private final int[] indices;
+  // the coordinate of each tile index.
+  private final Coordinate[] coordinates;
+  // rays[i][d] holds the tiles from tile i to the edge in direction d, not including i.
+  private final int[][][] rays;
+  // random keys for Zobrist hashing: one per tile per color, and one for white to move.
+  // seeded by the shape and size, so a position hashes the same way in every run.
+  final long[] blackKeys;
+  final long[] whiteKeys;
+  final long whiteTurnKey;
+
+  /**
+   * Builds a layout from the tiles that are in bounds.
+   * @param width the width of the coordinate space
+   * @param height the height of the coordinate space
+   * @param inBounds inBounds[c][r] is true iff c, r is a tile on the board
+   * @param directions the unit vectors a move can capture along.
+   * @param seed the seed for the hash keys, unique to the shape and size.
+   */
+  private BoardLayout(int width, int height, boolean[][] inBounds, List<Coordinate> directions,
+                      long seed) {
+    this.width = width;
+    this.height = height;
+    this.indices = new int[width * height];
+    List<Coordinate> tiles = new ArrayList<>();
+    for (int r = 0; r < height; r++) {
+      for (int c = 0; c < width; c++) {
+        if (inBounds[c][r]) {
+          indices[c * height + r] = tiles.size();
+          tiles.add(new Coordinate(c, r));
+        } else {
+          indices[c * height + r] = -1;
+        }
+      }
+    }
+    this.cells = tiles.size();
+    this.words = (cells + 63) / 64;
+    this.coordinates = tiles.toArray(new Coordinate[0]);
+    this.rays = new int[cells][directions.size()][];
+    for (int i = 0; i < cells; i++) {
+      for (int d = 0; d < directions.size(); d++) {
+        Coordinate dir = directions.get(d);
+        List<Integer> ray = new ArrayList<>();
+        int c = coordinates[i].c + dir.c;
+        int r = coordinates[i].r + dir.r;
+        while (index(c, r) >= 0) {
+          ray.add(index(c, r));
+          c += dir.c;
+          r += dir.r;
+        }
+        rays[i][d] = ray.stream().mapToInt(Integer::intValue).toArray();
+      }
+    }
+    SplittableRandom random = new SplittableRandom(seed);
+    this.blackKeys = random.longs(cells).toArray();
+    this.whiteKeys = random.longs(cells).toArray();
+    this.whiteTurnKey = random.nextLong();
+  }
+
+  /**
+   * Gets the layout of a hexagonal board.
+   * @param sideLength the number of tiles on each side of the hexagon.
+   * @param directions the six directions, see {@link HexagonalReversiModel}
+   * @return the (shared) layout.
+   */
+  static BoardLayout hexagon(int sideLength, List<Coordinate> directions) {
+    return hexagons.computeIfAbsent(sideLength, n -> {
+      int size = n * 2 - 1;
+      boolean[][] inBounds = new boolean[size][size];
+      for (int c = 0; c < size; c++) {
+        for (int r = 0; r < size; r++) {
+          // the top left and bottom right corners of the array are cut off.
+          inBounds[c][r] = c + r >= n - 1 && c + r <= 3 * (n - 1);
+        }
+      }
+      return new BoardLayout(size, size, inBounds, directions, 6L * 1000 + n);
+    });
+  }
+
+  /**
+   * Gets the layout of a square board.
+   * @param sideLength the number of tiles on each side of the square.
+   * @param directions the eight directions, see {@link SquareReversiModel}
+   * @return the (shared) layout.
+   */
+  static BoardLayout square(int sideLength, List<Coordinate> directions) {
+    return squares.computeIfAbsent(sideLength, n -> {
+      boolean[][] inBounds = new boolean[n][n];
+      for (boolean[] column : inBounds) {
+        Arrays.fill(column, true);
+      }
+      return new BoardLayout(n, n, inBounds, directions, 4L * 1000 + n);
+    });
+  }
+
+  /**
+   * Gets the tile index of a coordinate.
+   * @param c the column
+   * @param r the row
+   * @return the index of the tile, or -1 if it isn't on the board.
+   */
+  int index(int c, int r) {
+    if (c < 0 || c >= width || r < 0 || r >= height) {
+      return -1;
+    }
+    return indices[c * height + r];
+  }
+
+  /**
+   * Gets the coordinate of a tile index.
+   * @param index the tile index
+   * @return the coordinate of the tile.
+   */
+  Coordinate coordinate(int index) {
+    return coordinates[index];
+  }
+
+  /**
+   * Gets the rays from a tile to the edge of the board.
+   * @param index the tile index
+   * @return one ray of tile indices per direction, nearest tile first.
+   */
+  int[][] rays(int index) {
+    return rays[index];
+  }
+
+  /**
+   * Checks whether a tile's bit is set.
+   * @param bits one bit per tile
+   * @param index the tile index
+   * @return true iff the bit is set.
+   */
+  static boolean get(long[] bits, int index) {
+    return (bits[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Sets a tile's bit.
+   * @param bits one bit per tile
+   * @param index the tile index
+   */
+  static void set(long[] bits, int index) {
+    bits[index >>> 6] |= 1L << index;
+  }
+
+  /**
+   * Clears a tile's bit.
+   * @param bits one bit per tile
+   * @param index the tile index
+   */
+  static void clear(long[] bits, int index) {
+    bits[index >>> 6] &= ~(1L << index);
+  }
+}
@@ -9,6 +9,8 @@ import java.util.List;
  * Implements the MutableReversiModel to offer core game functionalities such as making moves,
  * checking game state, and accessing board details. View the README for more in depth information
  * on how to actually play reversi or use the model!
+ * Only the tiles inside the hexagon are stored, packed one bit per tile, and moves are checked
+ * by walking rays precomputed by {@link BoardLayout}.
  */
 public class HexagonalReversiModel extends AbstractReversiModel {
   private static final List<Coordinate> directions = new ArrayList<>(Arrays.asList(
@@ -38,8 +40,9 @@ public class HexagonalReversiModel extends AbstractReversiModel {
       throw new IllegalArgumentException("Cannot have a board that small!");
     }
     // INVARIANT: the board will always have an odd number of 'columns' and rows.
-    board = new Player[sideLength * 2 - 1][sideLength * 2 - 1];
+    setLayout(BoardLayout.hexagon(sideLength, directions));
     initBoard();
+    recompute();
   }
 
   /**
@@ -48,22 +51,34 @@ public class HexagonalReversiModel extends AbstractReversiModel {
    */
   public HexagonalReversiModel(ObservableReversiModel m) {
     super(directions);
-    board = new Player[m.getBoardWidth()][m.getBoardHeight()];
+    setLayout(BoardLayout.hexagon((m.getBoardWidth() + 1) / 2, directions));
     turn = m.isBlackTurn() ? Player.BLACK : Player.WHITE;
     gameOver = m.isGameOver();
     // currently not exposing passed. todo maybeee???
+    if (m instanceof HexagonalReversiModel) {
+      // same layout, so the discs can be copied word for word.
+      copyBoard((HexagonalReversiModel) m);
+    } else {
+      copyDiscs(m);
+      recompute();
+    }
+  }
+
+  /**
+   * Copies the discs of any model with the same dimensions onto this board, tile by tile.
+   * @param m the model to be copied.
+   */
+  private void copyDiscs(ObservableReversiModel m) {
     int height = m.getBoardHeight();
     int width = m.getBoardWidth();
     Coordinate coord;
     for (int r = 0; r < height; r++) {
       for (int q = 0; q < width; q++) {
         coord = new Coordinate(q, r);
-        try {
-          if (m.hasPiece(coord)) {
-            // yes this coord.q/r is redundant, but it makes it easier to change later
-            board[coord.c][coord.r] = m.isTileBlack(coord) ? Player.BLACK : Player.WHITE;
-          }
-        } catch (IllegalArgumentException ignored) { }
+        if (m.isInBounds(coord) && m.hasPiece(coord)) {
+          BoardLayout.set(m.isTileBlack(coord) ? blackDiscs : whiteDiscs,
+                  layout.index(coord.c, coord.r));
+        }
       }
     }
   }
@@ -72,43 +87,24 @@ public class HexagonalReversiModel extends AbstractReversiModel {
    * Initializes the game board with default positions for Black and White players.
    */
   private void initBoard() {
-    Coordinate center = new Coordinate(board.length / 2, board.length / 2);
+    Coordinate center = new Coordinate(layout.width / 2, layout.height / 2);
     Coordinate offset;
+    // alternates colors around the center tile, starting with black.
     for (int i = 0; i < directions.size(); i++) {
       offset = directions.get(i);
-      board[center.c + offset.c][center.r + offset.r] = turn;
-      super.changeTurn();
+      BoardLayout.set(i % 2 == 0 ? blackDiscs : whiteDiscs,
+              layout.index(center.c + offset.c, center.r + offset.r));
     }
   }
 
   /**
-   * Checks if the given coordinate is within the bounds of the hexagonal board
-   * (not just within the bounds of the 2d-array).
+   * Creates a deep copy of this board, without any listeners or history.
    *
-   * @param coordinate the position to check
-   * @return true if the coordinate is within bounds, false otherwise
+   * @return the copy.
    */
   @Override
-  public boolean isInBounds(Coordinate coordinate) {
-    return (coordinate.c + coordinate.r <= ((board.length - 1) * 1.5)) &&
-            (coordinate.c + coordinate.r >= ((board.length - 1) / 2)) &&
-            (0 <= coordinate.c && coordinate.c < board.length) &&
-            (0 <= coordinate.r && coordinate.r < board.length);
-  }
-
-  /**
-   * Returns the resulting score of making a move at a given position.
-   * @return the number of tiles flipped by the move.
-   */
-  @Override
-  public int potentialScore(Coordinate coord) {
-    AbstractReversiModel temp = new HexagonalReversiModel(this);
-    temp.move(coord);
-    if (this.isBlackTurn()) {
-      return Math.abs(this.getWhiteScore() - temp.getWhiteScore());
-    } else {
-      return Math.abs(this.getBlackScore() - temp.getBlackScore());
-    }
+  public ReversiModel copy() {
+    return new HexagonalReversiModel(this);
   }
 
   /**
@@ -0,0 +1,108 @@
+package cs3500.reversi.model;
+
+/**
+ * What changed on the board after a move: the tile that was placed, the discs it flipped, and
+ * the scores afterward. Lets listeners apply just the changes instead of re-reading the board.
+ * Immutable; the flipped discs are kept as packed tile indices and handed out as the board's
+ * own coordinates, so reading a result doesn't allocate.
+ */
+public final class MoveResult {
+  // the shape of the board the move was made on, for turning tile indices into coordinates.
+  private final BoardLayout layout;
+  // the tile index of the placed disc.
+  private final int placed;
+  // the tile indices of the flipped discs.
+  private final int[] flipped;
+  // whether black made the move.
+  private final boolean black;
+  // the scores after the move.
+  private final int blackScore;
+  private final int whiteScore;
+
+  /**
+   * Constructs the result of a move. Only the model makes these.
+   * @param layout     the board's layout
+   * @param placed     the tile index of the placed disc
+   * @param flipped    the tile indices of the flipped discs
+   * @param black      true iff black made the move
+   * @param blackScore black's score after the move
+   * @param whiteScore white's score after the move
+   */
+  MoveResult(BoardLayout layout, int placed, int[] flipped, boolean black,
+             int blackScore, int whiteScore) {
+    this.layout = layout;
+    this.placed = placed;
+    this.flipped = flipped;
+    this.black = black;
+    this.blackScore = blackScore;
+    this.whiteScore = whiteScore;
+  }
+
+  /**
+   * Gets the tile the disc was placed on.
+   * @return the coordinate of the move.
+   */
+  public Coordinate getPlaced() {
+    return layout.coordinate(placed);
+  }
+
+  /**
+   * Gets the number of discs that were flipped.
+   * @return a whole number, at least 1 for a legal move.
+   */
+  public int getFlipCount() {
+    return flipped.length;
+  }
+
+  /**
+   * Gets one of the flipped discs.
+   * @param i which flipped disc, from 0 to {@link #getFlipCount()} - 1
+   * @return the coordinate of the flipped disc.
+   * @throws IndexOutOfBoundsException if i is out of range.
+   */
+  public Coordinate getFlipped(int i) {
+    return layout.coordinate(flipped[i]);
+  }
+
+  /**
+   * Gets the tile index of the tile the disc was placed on.
+   * @return the tile index, see {@link ObservableReversiModel#getCellIndex(Coordinate)}.
+   */
+  public int getPlacedCell() {
+    return placed;
+  }
+
+  /**
+   * Gets the tile index of one of the flipped discs.
+   * @param i which flipped disc, from 0 to {@link #getFlipCount()} - 1
+   * @return the tile index of the flipped disc.
+   * @throws IndexOutOfBoundsException if i is out of range.
+   */
+  public int getFlippedCell(int i) {
+    return flipped[i];
+  }
+
+  /**
+   * Whether the move was made by black.
+   * @return true iff black made the move, so every changed tile is now black.
+   */
+  public boolean isBlack() {
+    return black;
+  }
+
+  /**
+   * Gives black's score after the move.
+   * @return the number of black discs.
+   */
+  public int getBlackScore() {
+    return blackScore;
+  }
+
+  /**
+   * Gives white's score after the move.
+   * @return the number of white discs.
+   */
+  public int getWhiteScore() {
+    return whiteScore;
+  }
+}
@@ -41,6 +41,67 @@ public interface ObservableReversiModel {
    */
   boolean hasPiece(Coordinate coordinate);
 
+  /**
+   * Gives the number of tiles on the board. Tiles are numbered from 0 in topmost-leftmost order,
+   * and the methods taking a tile index let callers go over the board without any Coordinates.
+   * @return the number of tiles.
+   */
+  int getCellCount();
+
+  /**
+   * Gets the tile index of a coordinate.
+   * @param coordinate the coordinate
+   * @return the tile index, or -1 if the coordinate isn't on the board.
+   */
+  int getCellIndex(Coordinate coordinate);
+
+  /**
+   * Gets the coordinate of a tile index. The same coordinate objects are handed out every time.
+   * @param cell the tile index
+   * @return the coordinate of the tile.
+   * @throws IllegalArgumentException if the tile index is out of range
+   */
+  Coordinate getCoordinate(int cell);
+
+  /**
+   * Retrieves the color of the piece at a given tile.
+   *
+   * @param cell the tile index
+   * @return true iff there is a black piece there
+   * @throws IllegalArgumentException if the tile index is out of range
+   */
+  boolean isTileBlack(int cell);
+
+  /**
+   * Checks if the tile has a piece on it.
+   * @param cell the tile index
+   * @return false if empty, true if there's a piece.
+   * @throws IllegalArgumentException if the tile index is out of range
+   */
+  boolean hasPiece(int cell);
+
+  /**
+   * Gets the tile the last move was played on.
+   * @return the tile index, or -1 if the last turn was passed or nothing was played yet.
+   */
+  int getLastMoveCell();
+
+  /**
+   * Copies the tiles the last move flipped into an array, so a search can follow the board
+   * without anything being allocated per move.
+   * @param flips where to copy them; must fit every tile of the board
+   * @return how many were copied, 0 if the last turn was passed or nothing was played yet.
+   */
+  int getLastFlips(int[] flips);
+
+  /**
+   * Checks if the current player would be able to play a move at the given tile.
+   * @param cell the tile index of the potential move.
+   * @return true iff the current player would be able to play their turn at the given tile.
+   * @throws IllegalArgumentException if the tile index is out of range
+   */
+  boolean isLegal(int cell);
+
   /**
    * Gets the length, i.e. the vertical dimension, of the game board.
    *
@@ -63,11 +124,17 @@ public interface ObservableReversiModel {
   int getBlackScore();
 
   /**
-   * Checks if the current player has any valid moves on the board (brute force).
+   * Checks if the current player has any valid moves on the board.
    * @return true iff there is a valid move on the board.
    */
   boolean anyValidMoves();
 
+  /**
+   * Gets every move the current player could legally make, in topmost-leftmost order.
+   * @return the legal moves, empty if there are none or the game is over.
+   */
+  List<Coordinate> getLegalMoves();
+
   /**
    * Gives white's score, in # of tiles on the board.
    *
@@ -75,6 +142,22 @@ public interface ObservableReversiModel {
    */
   int getWhiteScore();
 
+  /**
+   * Gives the number of empty tiles left on the board.
+   *
+   * @return a whole number, the tiles no one has played on yet.
+   */
+  int getEmptyCount();
+
+  /**
+   * Gets a 64-bit hash of the position: the discs on the board and whose turn it is. Equal
+   * positions on boards of the same shape and size have equal hashes, so this is a cheap way
+   * to identify a position.
+   *
+   * @return the hash of the position.
+   */
+  long getPositionHash();
+
   /**
    * Hides the Player enum from the interface.
    * @return whether it's the black's turn or not.
@@ -100,6 +183,14 @@ public interface ObservableReversiModel {
    */
   int potentialScore(Coordinate coord);
 
+  /**
+   * Creates a deep copy of this board, without any listeners or history. Moves made on the copy
+   * don't affect this board, so it can be used to search ahead.
+   *
+   * @return the copy.
+   */
+  ReversiModel copy();
+
   /**
    * Returns the coordinates of the corners on this board.
    * @return a list of corner coordinates.
@@ -15,14 +15,41 @@ public interface ReversiModel extends ObservableReversiModel {
    */
   void move(Coordinate coordinate);
 
+  /**
+   * Attempts to place a piece at the given coordinate on the board, like {@link #move}, and
+   * reports what changed.
+   *
+   * @param coordinate The position of the new tile, if valid.
+   * @return the tile placed, the discs flipped and the new scores.
+   * @throws IllegalArgumentException if the coordinate of the move is out of bounds.
+   * @throws IllegalStateException    if the move is not allowed according to the
+   *                                  rules of the game, or is not logically possible.
+   */
+  MoveResult playMove(Coordinate coordinate);
+
   /**
    * The game is over if both players pass consecutively. Both players might be forced to pass if
    * there are no legal moves for either player.
    */
   void pass();
 
+  /**
+   * Takes back the last move or pass, so the board is exactly as it was before it.
+   * Listeners aren't notified, since it's meant for looking ahead, not for playing; whoever
+   * takes moves back in a game being played has to tell its players.
+   *
+   * @throws IllegalStateException if there is nothing to undo.
+   */
+  void undo();
+
   /**
    * Tells the model to notify its subscribers that the game has started.
    */
   void startGame();
+
+  /**
+   * Ends the game where it stands, like when a player runs out of time, and tells the
+   * subscribers, who find the game over. Does nothing if it's already over.
+   */
+  void endGame();
 }
\ No newline at end of file
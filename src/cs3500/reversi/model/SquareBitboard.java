@@ -0,0 +1,92 @@
+package cs3500.reversi.model;
+
+/**
+ * Shift-and-mask move generation for an 8x8 square board packed into a single long per player.
+ * Bit {@code r * 8 + c} represents the tile at column c, row r, so shifting by one moves a disc
+ * one column over and shifting by eight moves it one row over.
+ */
+final class SquareBitboard {
+  // the side length of the board that fits in a long.
+  static final int SIZE = 8;
+  // every tile except the ones in the leftmost column.
+  private static final long NOT_LEFT = 0xfefefefefefefefeL;
+  // every tile except the ones in the rightmost column.
+  private static final long NOT_RIGHT = 0x7f7f7f7f7f7f7f7fL;
+  // bit shifts for each direction, clockwise from up, matching SquareReversiModel's directions.
+  // positive values shift left (towards higher rows/columns), negative values shift right.
+  private static final int[] SHIFTS = {-8, -7, 1, 9, 8, 7, -1, -9};
+  // masks that stop a shifted disc from wrapping around to the other side of the board.
+  private static final long[] MASKS = {
+      -1L, NOT_LEFT, NOT_LEFT, NOT_LEFT, -1L, NOT_RIGHT, NOT_RIGHT, NOT_RIGHT};
+
+  private SquareBitboard() {
+  }
+
+  /**
+   * Converts a coordinate to its bit index.
+   * @param c the column
+   * @param r the row
+   * @return the bit index of the tile.
+   */
+  static int index(int c, int r) {
+    return r * SIZE + c;
+  }
+
+  /**
+   * Moves every disc in the set one tile in the given direction, dropping discs that fall off.
+   * @param discs the set of discs
+   * @param dir the index of the direction, see {@link #SHIFTS}
+   * @return the shifted set.
+   */
+  private static long shift(long discs, int dir) {
+    int s = SHIFTS[dir];
+    if (s > 0) {
+      return (discs << s) & MASKS[dir];
+    }
+    return (discs >>> -s) & MASKS[dir];
+  }
+
+  /**
+   * Computes every tile the player could legally move to.
+   * @param own the discs of the player moving
+   * @param opp the discs of their opponent
+   * @return a mask of the legal moves.
+   */
+  static long legalMoves(long own, long opp) {
+    long empty = ~(own | opp);
+    long moves = 0;
+    for (int dir = 0; dir < SHIFTS.length; dir++) {
+      // runs of opponent discs touching one of our discs, at most six long on an 8x8 board.
+      long run = shift(own, dir) & opp;
+      for (int i = 0; i < SIZE - 3; i++) {
+        run |= shift(run, dir) & opp;
+      }
+      moves |= shift(run, dir) & empty;
+    }
+    return moves;
+  }
+
+  /**
+   * Computes the discs that would be flipped by the player moving at the given tile.
+   * @param own the discs of the player moving
+   * @param opp the discs of their opponent
+   * @param index the bit index of the move
+   * @return a mask of the discs that would be flipped, 0 if the move captures nothing.
+   */
+  static long flips(long own, long opp, int index) {
+    long move = 1L << index;
+    long flipped = 0;
+    for (int dir = 0; dir < SHIFTS.length; dir++) {
+      long line = 0;
+      long curr = shift(move, dir);
+      while ((curr & opp) != 0) {
+        line |= curr;
+        curr = shift(curr, dir);
+      }
+      if ((curr & own) != 0) {
+        flipped |= line;
+      }
+    }
+    return flipped;
+  }
+}
@@ -6,7 +6,8 @@ import java.util.List;
 
 /**
  * A game of reversi on a square board, where a player can capture along 4 axes (8 directions)
- * instead of 3 axes (6 directions) like in hexagonal reversi.
+ * instead of 3 axes (6 directions) like in hexagonal reversi. 8x8 boards, the usual size,
+ * generate moves with {@link SquareBitboard} instead of walking rays.
  */
 public class SquareReversiModel extends AbstractReversiModel {
   // the possible move direction vectors in a game of square reversi.
@@ -19,6 +20,9 @@ public class SquareReversiModel extends AbstractReversiModel {
           new Coordinate(-1, 1),
           new Coordinate(-1, 0),
           new Coordinate(-1, -1)));
+  // true iff this board is 8x8, so every tile index fits in a single long and moves are
+  // generated with shift-and-mask bitboards instead of walking rays.
+  private final boolean bitboard;
 
   /**
    * Constructs a new Square reversi board of given sidelength.
@@ -33,8 +37,10 @@ public class SquareReversiModel extends AbstractReversiModel {
     if (sideLength % 2 != 0) {
       throw new IllegalArgumentException("Cannot have a board with odd side length");
     }
-    board = new Player[sideLength][sideLength];
+    setLayout(BoardLayout.square(sideLength, directions));
+    bitboard = sideLength == SquareBitboard.SIZE;
     initBoard();
+    recompute();
   }
 
   /**
@@ -44,64 +50,111 @@ public class SquareReversiModel extends AbstractReversiModel {
    */
   public SquareReversiModel(SquareReversiModel m) {
     super(directions);
-    int height = m.getBoardHeight();
-    int width = m.getBoardWidth();
-    board = new Player[width][height];
+    setLayout(m.layout);
+    bitboard = m.bitboard;
     turn = m.isBlackTurn() ? Player.BLACK : Player.WHITE;
     gameOver = m.isGameOver();
     // currently not exposing passed. todo maybeee???
-    Coordinate coord;
-    for (int r = 0; r < height; r++) {
-      for (int q = 0; q < width; q++) {
-        coord = new Coordinate(q, r);
-        try {
-          if (m.hasPiece(coord)) {
-            // yes this coord.q/r is redundant, but it makes it easier to change later
-            board[coord.c][coord.r] = m.isTileBlack(coord) ? Player.BLACK : Player.WHITE;
-          }
-        } catch (IllegalArgumentException ignored) {
-        }
-      }
+    copyBoard(m);
+  }
+
+  /**
+   * Checks if a move at the given tile would capture at least one disc. 8x8 boards use
+   * bitboards, other sizes walk every direction like usual.
+   * @param cell the tile index of the move
+   * @param own  the discs of the player moving
+   * @param opp  the discs of their opponent
+   * @return true iff the move captures in any direction.
+   */
+  @Override
+  protected boolean captures(int cell, long[] own, long[] opp) {
+    if (!bitboard) {
+      return super.captures(cell, own, opp);
     }
+    return SquareBitboard.flips(own[0], opp[0], cell) != 0;
   }
 
   /**
-   * Initializes the game board with default positions for Black and White players.
+   * Finds the discs that a move at the given tile would flip. 8x8 boards use
+   * bitboards, other sizes walk every direction like usual.
+   * @param cell the tile index of the move
+   * @param own  the discs of the player moving
+   * @param opp  the discs of their opponent
+   * @param out  the bits of the flipped discs are set in here.
+   * @return the number of discs flipped.
    */
-  private void initBoard() {
-    Coordinate center = new Coordinate(board.length / 2 - 1, board.length / 2 - 1);
-    board[center.c][center.r] = Player.BLACK;
-    board[center.c + 1][center.r] = Player.WHITE;
-    board[center.c + 1][center.r + 1] = Player.BLACK;
-    board[center.c][center.r + 1] = Player.WHITE;
+  @Override
+  protected int collectFlips(int cell, long[] own, long[] opp, long[] out) {
+    if (!bitboard) {
+      return super.collectFlips(cell, own, opp, out);
+    }
+    long flipped = SquareBitboard.flips(own[0], opp[0], cell);
+    out[0] |= flipped;
+    return Long.bitCount(flipped);
   }
 
   /**
-   * Returns whether a hexagonal coordinate is in bounds for the board.
-   *
-   * @param coordinate the coordinate being checked.
-   * @return true, iff the coordinate is a valid tile in the bounds of the board.
+   * Counts the discs that a move at the given tile would flip. 8x8 boards use bitboards.
+   * @param cell the tile index of the move
+   * @param own  the discs of the player moving
+   * @param opp  the discs of their opponent
+   * @return the number of discs flipped.
    */
   @Override
-  public boolean isInBounds(Coordinate coordinate) {
-    return (coordinate.c < board.length && coordinate.c >= 0
-            && coordinate.r < board.length && coordinate.r >= 0);
+  protected int countFlips(int cell, long[] own, long[] opp) {
+    if (!bitboard) {
+      return super.countFlips(cell, own, opp);
+    }
+    return Long.bitCount(SquareBitboard.flips(own[0], opp[0], cell));
   }
 
   /**
-   * Returns the resulting score of making a move at a given position.
-   *
-   * @return the number of tiles flipped by the move.
+   * Recomputes both players' legal moves. 8x8 boards do this with bitboards, which is cheap
+   * enough that there's no need to track which tiles changed.
+   */
+  @Override
+  protected void recomputeLegalMoves() {
+    if (!bitboard) {
+      super.recomputeLegalMoves();
+      return;
+    }
+    blackMoves[0] = SquareBitboard.legalMoves(blackDiscs[0], whiteDiscs[0]);
+    whiteMoves[0] = SquareBitboard.legalMoves(whiteDiscs[0], blackDiscs[0]);
+  }
+
+  /**
+   * Updates the legal moves of both players after a move.
+   * @param placed  the tile index of the disc that was placed
+   * @param changed the bits of the discs that were flipped
    */
   @Override
-  public int potentialScore(Coordinate coord) {
-    SquareReversiModel temp = new SquareReversiModel(this);
-    temp.move(coord);
-    if (this.isBlackTurn()) {
-      return Math.abs(this.getWhiteScore() - temp.getWhiteScore());
-    } else {
-      return Math.abs(this.getBlackScore() - temp.getBlackScore());
+  protected void updateLegalMoves(int placed, long[] changed) {
+    if (!bitboard) {
+      super.updateLegalMoves(placed, changed);
+      return;
     }
+    recomputeLegalMoves();
+  }
+
+  /**
+   * Initializes the game board with default positions for Black and White players.
+   */
+  private void initBoard() {
+    Coordinate center = new Coordinate(layout.width / 2 - 1, layout.height / 2 - 1);
+    BoardLayout.set(blackDiscs, layout.index(center.c, center.r));
+    BoardLayout.set(whiteDiscs, layout.index(center.c + 1, center.r));
+    BoardLayout.set(blackDiscs, layout.index(center.c + 1, center.r + 1));
+    BoardLayout.set(whiteDiscs, layout.index(center.c, center.r + 1));
+  }
+
+  /**
+   * Creates a deep copy of this board, without any listeners or history.
+   *
+   * @return the copy.
+   */
+  @Override
+  public ReversiModel copy() {
+    return new SquareReversiModel(this);
   }
 
   /**
@@ -0,0 +1,145 @@
+package cs3500.reversi.strategy;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.ReversiModel;
+
+/**
+ * Grows an {@link OpeningBook} from games: every book move played from a position gets weight
+ * for how the game went for the player who made it, 2 for a win and 1 for a draw.
+ * Starts empty or from an existing book, and writes the whole book back out sorted.
+ */
+public class BookBuilder {
+  // the weight a move gets for each result of the game it was played in.
+  private static final int WIN_WEIGHT = 2;
+  private static final int DRAW_WEIGHT = 1;
+
+  // position hash to tile index of the move to total weight, both sorted like the file.
+  private final Map<Long, Map<Integer, Integer>> book = new TreeMap<>();
+
+  /**
+   * Starts an empty book.
+   */
+  public BookBuilder() {
+    // nothing to load.
+  }
+
+  /**
+   * Starts from every entry in an existing book.
+   * @param existing the book to grow
+   */
+  public BookBuilder(OpeningBook existing) {
+    for (int i = 0; i < existing.size(); i++) {
+      add(existing.hash(i), existing.move(i), existing.weight(i));
+    }
+  }
+
+  /**
+   * Adds weight to a move from a position.
+   * @param hash   the position's hash
+   * @param move   the tile index of the move
+   * @param weight how much weight to add, not negative
+   */
+  public void add(long hash, int move, int weight) {
+    if (weight < 0 || move < 0) {
+      throw new IllegalArgumentException("Need a real move and a weight that isn't negative!");
+    }
+    book.computeIfAbsent(hash, h -> new TreeMap<>()).merge(move, weight, Integer::sum);
+  }
+
+  /**
+   * Plays games of a strategy against itself and adds their first moves to the book. So the
+   * games don't all go the same way, the book moves are sometimes picked at random.
+   * @param newGame    makes the board each game starts on
+   * @param games      how many games to play
+   * @param plies      how many moves from the start of each game go in the book
+   * @param strategy   how both players pick their moves
+   * @param random     where the random moves come from
+   * @param randomness the chance of a book move being random instead of the strategy's
+   */
+  public void selfPlay(Supplier<ReversiModel> newGame, int games, int plies,
+                       FallibleStrat strategy, Random random, double randomness) {
+    for (int game = 0; game < games; game++) {
+      ReversiModel model = newGame.get();
+      List<long[]> played = new ArrayList<>();
+      while (!model.isGameOver()) {
+        List<Coordinate> legal = model.getLegalMoves();
+        if (legal.isEmpty()) {
+          model.pass();
+          continue;
+        }
+        Coordinate move;
+        boolean inBook = played.size() < plies;
+        if (inBook && random.nextDouble() < randomness) {
+          move = legal.get(random.nextInt(legal.size()));
+        } else {
+          Optional<Coordinate> choice = strategy.chooseMove(model);
+          move = choice.orElse(legal.get(0));
+        }
+        if (inBook) {
+          played.add(new long[] {model.getPositionHash(), model.getCellIndex(move),
+              model.isBlackTurn() ? 1 : 0});
+        }
+        model.move(move);
+      }
+      int diff = model.getBlackScore() - model.getWhiteScore();
+      for (long[] move : played) {
+        boolean black = move[2] == 1;
+        int weight = diff == 0 ? DRAW_WEIGHT : (diff > 0) == black ? WIN_WEIGHT : 0;
+        add(move[0], (int) move[1], weight);
+      }
+    }
+  }
+
+  /**
+   * Gets the number of entries the book will have.
+   * @return the number of (position, move) pairs.
+   */
+  public int size() {
+    int size = 0;
+    for (Map<Integer, Integer> moves : book.values()) {
+      size += moves.size();
+    }
+    return size;
+  }
+
+  /**
+   * Writes the book out, in the format {@link OpeningBook} reads. The book is written next to
+   * the file and then moved over it, so a book that's open on the old file keeps working.
+   * @param file where to write the book; replaced if it already exists.
+   * @throws IOException if the file can't be written.
+   */
+  public void write(Path file) throws IOException {
+    Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "book", ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(temp)))) {
+      out.writeInt(OpeningBook.MAGIC);
+      out.writeInt(OpeningBook.VERSION);
+      out.writeInt(size());
+      for (Map.Entry<Long, Map<Integer, Integer>> position : book.entrySet()) {
+        for (Map.Entry<Integer, Integer> move : position.getValue().entrySet()) {
+          out.writeLong(position.getKey());
+          out.writeInt(move.getKey());
+          out.writeInt(move.getValue());
+        }
+      }
+    } catch (IOException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+  }
+}
@@ -0,0 +1,336 @@
+package cs3500.reversi.strategy;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.ObservableReversiModel;
+import cs3500.reversi.model.ReversiModel;
+
+/**
+ * Plays perfectly once the board is nearly full: searches every line to the end of the game and
+ * plays the move with the best final disc difference. Only kicks in when there are few enough
+ * empty tiles left, otherwise it has no move, so it can go in front of other strategies in a
+ * {@link TryTwo} or {@link TryN}.
+ * Moves are tried in an order that cuts the search down the most: moves into regions with an
+ * odd number of empty tiles first (parity, whoever moves last in a region tends to keep it),
+ * and then the moves that leave the opponent the fewest replies (mobility).
+ */
+public class EndgameSolver implements FallibleStrat {
+  // the most empty tiles the solver takes on when the number isn't given.
+  public static final int DEFAULT_EMPTIES = 12;
+  // below this many empty tiles, ordering by mobility costs more than it saves.
+  private static final int MOBILITY_EMPTIES = 6;
+  // bigger than any disc difference.
+  private static final int INFINITY = Integer.MAX_VALUE / 2;
+  // how many nodes to search between checks for an interrupt.
+  private static final int INTERRUPT_INTERVAL = 1024;
+
+  // the most empty tiles the solver takes on.
+  private final int maxEmpties;
+
+  // set up at the start of each solve.
+  private ReversiModel board;
+  // the empty tiles at the start of the solve, and the empty neighbors of each.
+  private int[] empties;
+  private int[][] neighbors;
+  // scratch space, kept between solves so the search doesn't allocate: the moves of each
+  // position on the current line, by how many empty tiles it has, and room to order them.
+  private int[][] movesByEmpties = new int[0][];
+  private int[] keys;
+  private int[] region;
+  private int[] stack;
+  private int[] members;
+  // stats from the last solve.
+  private long nodes;
+  private long elapsed;
+  private int lastScore;
+  // set once the thread solving is interrupted, which ends the solve early.
+  private boolean stopped;
+
+  /**
+   * Constructs a solver for the last {@link #DEFAULT_EMPTIES} empty tiles.
+   */
+  public EndgameSolver() {
+    this(DEFAULT_EMPTIES);
+  }
+
+  /**
+   * Constructs a solver for the last few empty tiles.
+   * @param maxEmpties the most empty tiles left for the solver to take over. Must be positive.
+   */
+  public EndgameSolver(int maxEmpties) {
+    if (maxEmpties <= 0) {
+      throw new IllegalArgumentException("Need at least one empty tile to solve!");
+    }
+    this.maxEmpties = maxEmpties;
+  }
+
+  /**
+   * Chooses the move with the best final disc difference, if there are few enough empty tiles.
+   * If the thread is interrupted, stops and chooses the best of the moves solved so far, or the
+   * one that looked best before solving if none was.
+   * @param m the board the move is being made for.
+   * @return the best move, or empty if there are too many empty tiles or no legal moves.
+   */
+  @Override
+  public Optional<Coordinate> chooseMove(ObservableReversiModel m) {
+    if (m.getEmptyCount() > maxEmpties || m.getLegalMoves().isEmpty()) {
+      return Optional.empty();
+    }
+    int move = solveFrom(m);
+    return Optional.of(m.getCoordinate(move));
+  }
+
+  /**
+   * Works out the final disc difference with perfect play from both sides, however many empty
+   * tiles there are; it's up to the caller to not ask for too much.
+   * @param m the board
+   * @return the player to move's discs minus the opponent's at the end of the game; only a
+   *         guess if the thread was interrupted.
+   */
+  public int solve(ObservableReversiModel m) {
+    solveFrom(m);
+    return lastScore;
+  }
+
+  /**
+   * Solves the position, keeping the stats.
+   * @param m the board
+   * @return the tile index of the best move, or -1 if the player to move has to pass.
+   */
+  private int solveFrom(ObservableReversiModel m) {
+    long start = System.nanoTime();
+    nodes = 0;
+    stopped = false;
+    board = m.copy();
+    findEmpties();
+    int best = -1;
+    if (board.isGameOver()) {
+      lastScore = finalScore();
+    } else {
+      int[] moves = movesByEmpties[board.getEmptyCount()];
+      int count = orderMoves(moves);
+      if (count == 0) {
+        board.pass();
+        lastScore = -search(-INFINITY, INFINITY);
+        board.undo();
+      } else {
+        int alpha = -INFINITY;
+        best = moves[0];
+        for (int i = 0; i < count; i++) {
+          int move = moves[i];
+          board.move(board.getCoordinate(move));
+          int score = -search(-INFINITY, -alpha);
+          board.undo();
+          if (stopped) {
+            // the move cut short has no real score, keep the best of the ones before it.
+            break;
+          }
+          if (score > alpha) {
+            alpha = score;
+            best = move;
+          }
+        }
+        lastScore = alpha;
+      }
+    }
+    elapsed = System.nanoTime() - start;
+    board = null;
+    return best;
+  }
+
+  /**
+   * Finds the empty tiles on the board, and which of them are next to each other, and makes
+   * room to search them if the last solve didn't have enough.
+   */
+  private void findEmpties() {
+    int count = 0;
+    int[] cells = new int[board.getCellCount()];
+    for (int cell = 0; cell < board.getCellCount(); cell++) {
+      if (!board.hasPiece(cell)) {
+        cells[count++] = cell;
+      }
+    }
+    empties = Arrays.copyOf(cells, count);
+    neighbors = new int[count][];
+    for (int i = 0; i < count; i++) {
+      Coordinate tile = board.getCoordinate(empties[i]);
+      int[] adjacent = new int[board.getDirections().size()];
+      int found = 0;
+      for (Coordinate dir : board.getDirections()) {
+        Coordinate next = new Coordinate(tile.c + dir.c, tile.r + dir.r);
+        int cell = board.isInBounds(next) ? board.getCellIndex(next) : -1;
+        for (int j = 0; j < count; j++) {
+          if (empties[j] == cell) {
+            adjacent[found++] = j;
+          }
+        }
+      }
+      neighbors[i] = Arrays.copyOf(adjacent, found);
+    }
+    if (movesByEmpties.length <= count) {
+      movesByEmpties = new int[count + 1][count];
+      keys = new int[count];
+      region = new int[count];
+      stack = new int[count];
+      members = new int[count];
+    }
+  }
+
+  /**
+   * Finds the exact score of the position for the player to move.
+   * @param alpha the score the player is already guaranteed elsewhere
+   * @param beta  the score the opponent is already guaranteed elsewhere
+   * @return the final disc difference, or a bound on it if it's outside alpha..beta.
+   */
+  private int search(int alpha, int beta) {
+    nodes++;
+    // the caller's thread is interrupted when whoever asked for the move can't wait any more.
+    if (nodes % INTERRUPT_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+      stopped = true;
+    }
+    if (stopped) {
+      return 0;
+    }
+    if (board.isGameOver()) {
+      return finalScore();
+    }
+    // a pass keeps the same empty tiles, but the position passing is done with its moves then.
+    int[] moves = movesByEmpties[board.getEmptyCount()];
+    int count = orderMoves(moves);
+    if (count == 0) {
+      board.pass();
+      int score = -search(-beta, -alpha);
+      board.undo();
+      return score;
+    }
+    int best = -INFINITY;
+    for (int i = 0; i < count; i++) {
+      int move = moves[i];
+      board.move(board.getCoordinate(move));
+      int score = -search(-beta, -alpha);
+      board.undo();
+      if (score > best) {
+        best = score;
+        alpha = Math.max(alpha, score);
+        if (alpha >= beta) {
+          break;
+        }
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Scores a finished game.
+   * @return the player to move's discs minus the opponent's.
+   */
+  private int finalScore() {
+    int diff = board.getBlackScore() - board.getWhiteScore();
+    return board.isBlackTurn() ? diff : -diff;
+  }
+
+  /**
+   * Finds the legal moves and sorts them so the ones most likely to be best come first.
+   * @param moves where to put the tile indices of the legal moves, in order
+   * @return how many legal moves there are.
+   */
+  private int orderMoves(int[] moves) {
+    oddRegions();
+    int count = 0;
+    boolean mobility = board.getEmptyCount() > MOBILITY_EMPTIES;
+    for (int i = 0; i < empties.length; i++) {
+      int cell = empties[i];
+      if (board.hasPiece(cell) || !board.isLegal(cell)) {
+        continue;
+      }
+      int key = region[i] == 1 ? 0 : board.getCellCount();
+      if (mobility) {
+        board.move(board.getCoordinate(cell));
+        key += legalMoveCount();
+        board.undo();
+      }
+      // insertion sort, there are only ever a few moves.
+      int j = count++;
+      while (j > 0 && keys[j - 1] > key) {
+        moves[j] = moves[j - 1];
+        keys[j] = keys[j - 1];
+        j--;
+      }
+      moves[j] = cell;
+      keys[j] = key;
+    }
+    return count;
+  }
+
+  /**
+   * Splits the empty tiles into regions of tiles that touch each other, and marks each of the
+   * starting empty tiles in region: 1 if it's in a region with an odd number of empty tiles, 0
+   * if the region is even, and -1 if it isn't empty anymore.
+   */
+  private void oddRegions() {
+    Arrays.fill(region, 0, empties.length, -1);
+    for (int i = 0; i < empties.length; i++) {
+      if (region[i] != -1 || board.hasPiece(empties[i])) {
+        continue;
+      }
+      // flood fill the region, then mark it with its parity.
+      int size = 0;
+      int top = 0;
+      stack[top++] = i;
+      region[i] = -2;
+      while (top > 0) {
+        int tile = stack[--top];
+        members[size++] = tile;
+        for (int next : neighbors[tile]) {
+          if (region[next] == -1 && !board.hasPiece(empties[next])) {
+            region[next] = -2;
+            stack[top++] = next;
+          }
+        }
+      }
+      for (int j = 0; j < size; j++) {
+        region[members[j]] = size % 2;
+      }
+    }
+  }
+
+  /**
+   * Counts the legal moves of the player to move, which can only be on the empty tiles.
+   * @return the number of legal moves.
+   */
+  private int legalMoveCount() {
+    int count = 0;
+    for (int cell : empties) {
+      if (!board.hasPiece(cell) && board.isLegal(cell)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * The number of positions looked at in the last solve.
+   * @return the node count.
+   */
+  public long getLastNodes() {
+    return nodes;
+  }
+
+  /**
+   * How long the last solve took.
+   * @return the time, in milliseconds.
+   */
+  public long getLastSolveMillis() {
+    return elapsed / 1_000_000;
+  }
+
+  /**
+   * The result of the last solve.
+   * @return the final disc difference with perfect play, for the player who was to move.
+   */
+  public int getLastScore() {
+    return lastScore;
+  }
+}
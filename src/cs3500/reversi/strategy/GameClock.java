@@ -0,0 +1,30 @@
+package cs3500.reversi.strategy;
+
+import cs3500.reversi.model.ObservableReversiModel;
+
+/**
+ * The time players have left in a game, for strategies that decide how long to think from it
+ * instead of a set budget.
+ */
+public interface GameClock {
+  /**
+   * How long a player has left, counting the turn they're on.
+   * @param black true for black's time, false for white's.
+   * @return the time left, in milliseconds; 0 if they're out of time.
+   */
+  long getRemainingMillis(boolean black);
+
+  /**
+   * How long a player gets back after each move.
+   * @return the increment, in milliseconds.
+   */
+  long getIncrementMillis();
+
+  /**
+   * How long the player whose turn it is should think about their move, leaving enough time
+   * for the rest of the game and for the move to get back before they run out.
+   * @param board the board the move is being made for
+   * @return the time to think, in milliseconds; at least 1.
+   */
+  long getMoveBudget(ObservableReversiModel board);
+}
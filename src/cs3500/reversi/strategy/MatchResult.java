@@ -0,0 +1,208 @@
+package cs3500.reversi.strategy;
+
+/**
+ * The results of one player's games against another, from the first player's side: how many
+ * games they won, lost and drew, by how many discs, and what that makes the difference in their
+ * Elo ratings, with a 95% confidence interval.
+ */
+public final class MatchResult {
+  // how many standard errors either side of the score the confidence interval goes.
+  private static final double Z_95 = 1.96;
+
+  private final String first;
+  private final String second;
+  private final String board;
+  private int wins;
+  private int losses;
+  private int draws;
+  // games either player lost by making an illegal move.
+  private int forfeits;
+  // the first player's discs minus the second's, over every game.
+  private long discDifference;
+
+  /**
+   * Constructs an empty result.
+   * @param first  the name of the first player
+   * @param second the name of the second player
+   * @param board  the name of the board they played on
+   */
+  MatchResult(String first, String second, String board) {
+    this.first = first;
+    this.second = second;
+    this.board = board;
+  }
+
+  /**
+   * Adds one finished game.
+   * @param diff    the first player's discs minus the second's at the end
+   * @param forfeit 1 if the first player forfeited, -1 if the second did, otherwise 0
+   */
+  void record(int diff, int forfeit) {
+    discDifference += diff;
+    if (forfeit != 0) {
+      forfeits++;
+    }
+    if (forfeit > 0) {
+      losses++;
+    } else if (forfeit < 0) {
+      wins++;
+    } else if (diff > 0) {
+      wins++;
+    } else if (diff < 0) {
+      losses++;
+    } else {
+      draws++;
+    }
+  }
+
+  /**
+   * Adds up two results between the same players.
+   * @param other the other result
+   * @param board the name for the boards of both results
+   * @return a new result with every game from both.
+   */
+  public MatchResult plus(MatchResult other, String board) {
+    if (!first.equals(other.first) || !second.equals(other.second)) {
+      throw new IllegalArgumentException("These results are for different players!");
+    }
+    MatchResult sum = new MatchResult(first, second, board);
+    sum.wins = wins + other.wins;
+    sum.losses = losses + other.losses;
+    sum.draws = draws + other.draws;
+    sum.forfeits = forfeits + other.forfeits;
+    sum.discDifference = discDifference + other.discDifference;
+    return sum;
+  }
+
+  /**
+   * Gets the name of the first player.
+   * @return the name the results are from the side of.
+   */
+  public String getFirst() {
+    return first;
+  }
+
+  /**
+   * Gets the name of the second player.
+   * @return the name of the opponent.
+   */
+  public String getSecond() {
+    return second;
+  }
+
+  /**
+   * Gets the name of the board the games were played on.
+   * @return the board's name.
+   */
+  public String getBoard() {
+    return board;
+  }
+
+  /**
+   * Gets the number of games the first player won.
+   * @return the number of wins.
+   */
+  public int getWins() {
+    return wins;
+  }
+
+  /**
+   * Gets the number of games the first player lost.
+   * @return the number of losses.
+   */
+  public int getLosses() {
+    return losses;
+  }
+
+  /**
+   * Gets the number of games that ended even.
+   * @return the number of draws.
+   */
+  public int getDraws() {
+    return draws;
+  }
+
+  /**
+   * Gets the number of games either player lost by making an illegal move.
+   * @return the number of forfeited games, counted in the wins and losses too.
+   */
+  public int getForfeits() {
+    return forfeits;
+  }
+
+  /**
+   * Gets the number of games played.
+   * @return the wins, losses and draws added up.
+   */
+  public int getGames() {
+    return wins + losses + draws;
+  }
+
+  /**
+   * Gets the first player's average margin.
+   * @return the first player's discs minus the second's, averaged over every game.
+   */
+  public double getAverageDiscDifference() {
+    return getGames() == 0 ? 0 : (double) discDifference / getGames();
+  }
+
+  /**
+   * Gets the first player's share of the points, 1 for a win and half for a draw.
+   * @return the score, between 0 and 1.
+   */
+  public double getScore() {
+    return getGames() == 0 ? 0.5 : (wins + draws / 2.0) / getGames();
+  }
+
+  /**
+   * Gets how many Elo points better the first player is than the second, going by the score.
+   * @return the Elo difference; infinite if one player won every game.
+   */
+  public double getElo() {
+    return elo(getScore());
+  }
+
+  /**
+   * Gets how far the real Elo difference could be from {@link #getElo()}. Uses the Wilson
+   * interval of the score, which stays sensible even when one player won every game.
+   * @return the lowest and highest Elo difference the 95% confidence interval of the score
+   *         allows.
+   */
+  public double[] getEloInterval() {
+    int games = getGames();
+    double score = getScore();
+    if (games == 0) {
+      return new double[] {Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY};
+    }
+    // the variance of the points from one game, which draws make smaller than a coin flip's.
+    double variance = (wins * Math.pow(1 - score, 2) + losses * Math.pow(score, 2)
+            + draws * Math.pow(0.5 - score, 2)) / games;
+    double z2 = Z_95 * Z_95 / games;
+    double center = (score + z2 / 2) / (1 + z2);
+    double margin = Math.sqrt(Z_95 * Z_95 * variance / games + z2 * z2 / 4) / (1 + z2);
+    return new double[] {elo(center - margin), elo(center + margin)};
+  }
+
+  /**
+   * Turns a score into an Elo difference.
+   * @param score the share of the points, clamped between 0 and 1
+   * @return the Elo difference that expects that score.
+   */
+  private static double elo(double score) {
+    if (score <= 0) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    if (score >= 1) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return 400 * Math.log10(score / (1 - score));
+  }
+
+  @Override
+  public String toString() {
+    double[] interval = getEloInterval();
+    return String.format("%s vs %s on %s: +%d -%d =%d (%d forfeits), discs %+.2f, "
+                    + "Elo %+.0f [%+.0f, %+.0f]", first, second, board, wins, losses, draws,
+            getForfeits(), getAverageDiscDifference(), getElo(), interval[0], interval[1]);
+  }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.stream.IntStream;
 
 import cs3500.reversi.model.Coordinate;
 import cs3500.reversi.model.ObservableReversiModel;
@@ -14,6 +15,9 @@ import cs3500.reversi.model.ObservableReversiModel;
  * by topmost row, or by leftmost tile in the row if the moves are in the same row.
  */
 public class MaximizeFlips implements FallibleStrat, DynamicStrat {
+  // the number of legal moves it takes before scoring them in parallel is worth it.
+  static final int PARALLEL_THRESHOLD = 32;
+
   /**
    * Returns an available move according to the strategy.
    *
@@ -36,25 +40,24 @@ public class MaximizeFlips implements FallibleStrat, DynamicStrat {
    */
   @Override
   public Optional<List<Coordinate>> rankMoves(ObservableReversiModel m) {
+    List<Coordinate> legal = m.getLegalMoves();
+    // the number of flips for each legal move. scoring only reads the board, so big boards
+    // score their moves in parallel; the ranking below doesn't depend on the order they finish.
+    int[] flips = new int[legal.size()];
+    IntStream indices = IntStream.range(0, legal.size());
+    if (legal.size() >= PARALLEL_THRESHOLD) {
+      indices = indices.parallel();
+    }
+    indices.forEach(i -> flips[i] = m.potentialScore(legal.get(i)));
+
     // map of tiles flipped to moves. multiple moves can have the same # of flips, hence the list.
     Map<Integer, List<Coordinate>> moves = new TreeMap<>();
-    // the move being tried. every position on the board will be checked for legality.
-    Coordinate testMove;
-    // the number of flips for a given move.
-    int flips;
     // put scores of legal moves into map
-    for (int r = 0; r < m.getBoardHeight(); r++) {
-      for (int c = 0; c < m.getBoardWidth(); c++) {
-        testMove = new Coordinate(c, r);
-        if (m.isInBounds(testMove) && m.isLegal(testMove)) {
-          flips = m.potentialScore(testMove);
-          // opponent's score after the move
-          if (!moves.containsKey(flips)) {
-            moves.put(flips, new ArrayList<>());
-          }
-          moves.get(flips).add(new Coordinate(testMove));
-        }
+    for (int i = 0; i < legal.size(); i++) {
+      if (!moves.containsKey(flips[i])) {
+        moves.put(flips[i], new ArrayList<>());
       }
+      moves.get(flips[i]).add(legal.get(i));
     }
     List<Coordinate> rankedMoves = new ArrayList<>();
     // put them all in the arraylist, ordered best to worst.
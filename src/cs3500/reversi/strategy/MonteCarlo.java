@@ -0,0 +1,345 @@
+package cs3500.reversi.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.ObservableReversiModel;
+import cs3500.reversi.model.ReversiModel;
+
+/**
+ * Monte Carlo tree search: plays lots of random games from the current position, and grows a
+ * tree of the moves that keep winning them (UCT), then plays the move that was tried the most.
+ * Needs no idea of what a good position looks like, so it works on any board.
+ * Each thread plays its games on its own copy of the board by making and undoing moves, so a
+ * game costs no allocation besides the tree nodes it adds. Threads share one tree; a thread
+ * going down a branch counts as a loss there until its game finishes (virtual loss), so the
+ * other threads spread out instead of all trying the same line. The extra threads come from the
+ * same pool as {@link Negamax}'s.
+ * With one thread and a playout limit, the same position always gets the same move.
+ * A MonteCarlo can only run one search at a time.
+ */
+public class MonteCarlo implements FallibleStrat {
+  // how much to favor trying moves that haven't been tried much over moves that win.
+  private static final double EXPLORATION = Math.sqrt(2);
+  // the seed for the random games, so a single threaded search can be repeated.
+  private static final long SEED = 3500;
+
+  // how long a move can take, in milliseconds.
+  private final long budget;
+  // where the budget comes from for each move instead, or null to always use the same one.
+  private final GameClock clock;
+  // the most games to play for one move.
+  private final long maxPlayouts;
+  // how many threads play games at once.
+  private final int threads;
+
+  // when the current search has to stop, from System.nanoTime().
+  private long deadline;
+  // set to stop every thread early, once the caller's thread is interrupted or done.
+  private volatile boolean stopped;
+  // the games started so far in the current search.
+  private final AtomicLong playouts = new AtomicLong();
+  // stats from the last search.
+  private long lastPlayouts;
+  private long elapsed;
+
+  /**
+   * Constructs a search that plays games until it runs out of time, on one thread.
+   * @param budget how long a move can take, in milliseconds. Must be positive.
+   */
+  public MonteCarlo(long budget) {
+    this(budget, Long.MAX_VALUE, 1);
+  }
+
+  /**
+   * Constructs a search that plays games until it runs out of time or has played enough.
+   * @param budget      how long a move can take, in milliseconds. Must be positive.
+   * @param maxPlayouts the most games to play for one move. Must be positive.
+   * @param threads     how many threads to play with, including the caller's. Must be positive.
+   */
+  public MonteCarlo(long budget, long maxPlayouts, int threads) {
+    this(budget, null, maxPlayouts, threads);
+  }
+
+  /**
+   * Constructs a search that plays games for as long as a game's clock says it can spend on
+   * each move.
+   * @param clock   the clock of the game that will be searched.
+   * @param threads how many threads to play with, including the caller's. Must be positive.
+   */
+  public MonteCarlo(GameClock clock, int threads) {
+    this(1, clock, Long.MAX_VALUE, threads);
+    if (clock == null) {
+      throw new IllegalArgumentException("Clock can't be null!");
+    }
+  }
+
+  private MonteCarlo(long budget, GameClock clock, long maxPlayouts, int threads) {
+    if (budget <= 0 || maxPlayouts <= 0) {
+      throw new IllegalArgumentException("Need a positive time budget and playout limit!");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("Need at least one thread!");
+    }
+    this.budget = budget;
+    this.clock = clock;
+    this.maxPlayouts = maxPlayouts;
+    this.threads = threads;
+  }
+
+  /**
+   * Chooses the move that was tried the most.
+   * @param m the board the move is being made for.
+   * @return the move, or empty if there are no legal moves.
+   */
+  @Override
+  public Optional<Coordinate> chooseMove(ObservableReversiModel m) {
+    if (m.getLegalMoves().isEmpty()) {
+      return Optional.empty();
+    }
+    long start = System.nanoTime();
+    deadline = start + (clock == null ? budget : clock.getMoveBudget(m)) * 1_000_000;
+    playouts.set(0);
+    stopped = false;
+    Node root = new Node(-1, !m.isBlackTurn());
+
+    List<Future<?>> running = new ArrayList<>();
+    for (int i = 1; i < threads; i++) {
+      running.add(SearchHelpers.INSTANCE.submit(new Worker(m.copy(), root, SEED + i)));
+    }
+    new Worker(m.copy(), root, SEED).run();
+    // once the main thread is done there's no point in the helpers going on.
+    stopped = true;
+    Negamax.waitFor(running);
+    lastPlayouts = Math.min(playouts.get(), maxPlayouts);
+    elapsed = System.nanoTime() - start;
+
+    synchronized (root) {
+      if (root.children == null) {
+        // ran out of time before a single game, so there's nothing to go on.
+        return Optional.of(m.getLegalMoves().get(0));
+      }
+      Node best = root.children[0];
+      for (Node child : root.children) {
+        if (child.visits > best.visits) {
+          best = child;
+        }
+      }
+      return Optional.of(m.getCoordinate(best.cell));
+    }
+  }
+
+  /**
+   * A position in the tree. The stats of a node are guarded by its parent's lock, and its
+   * children by its own.
+   */
+  private static final class Node {
+    // the tile index of the move that led here, or -1 for a pass.
+    private final int cell;
+    // whether black made the move that led here.
+    private final boolean blackMoved;
+    // the moves from here, or null if they haven't been added yet.
+    private Node[] children;
+    // how many games went through here, and the total result of them for whoever moved here:
+    // 1 for a win, 0.5 for a draw.
+    private int visits;
+    private double wins;
+    // how many games went from here to one of the children.
+    private int childVisits;
+
+    /**
+     * Constructs a node without any children.
+     * @param cell       the tile index of the move that led here, or -1 for a pass
+     * @param blackMoved whether black made the move
+     */
+    Node(int cell, boolean blackMoved) {
+      this.cell = cell;
+      this.blackMoved = blackMoved;
+    }
+  }
+
+  /**
+   * One thread's games: its own copy of the board, its own random numbers, and a shared tree.
+   */
+  private final class Worker implements Runnable {
+    private final ReversiModel board;
+    private final Node root;
+    private final SplittableRandom random;
+    // the nodes the current game went through, after the root.
+    private final Node[] path;
+
+    /**
+     * Constructs a worker.
+     * @param board a copy of the board at the root
+     * @param root  the shared tree
+     * @param seed  the seed for this thread's random games
+     */
+    Worker(ReversiModel board, Node root, long seed) {
+      this.board = board;
+      this.root = root;
+      this.random = new SplittableRandom(seed);
+      // every pass has to be followed by a move or the end of the game.
+      this.path = new Node[board.getCellCount() * 2 + 2];
+    }
+
+    @Override
+    public void run() {
+      while (!stopped && System.nanoTime() < deadline
+              && playouts.getAndIncrement() < maxPlayouts) {
+        // the caller's thread is interrupted when whoever asked for the move can't wait any more.
+        if (Thread.currentThread().isInterrupted()) {
+          stopped = true;
+          break;
+        }
+        playout();
+      }
+    }
+
+    /**
+     * Goes down the tree to a new node, plays a random game from there, and counts the result
+     * in every node on the way. Leaves the board as it was.
+     */
+    private void playout() {
+      int length = 0;
+      Node node = root;
+      boolean fresh = false;
+      while (!fresh && !board.isGameOver()) {
+        Node child;
+        synchronized (node) {
+          if (node.children == null) {
+            node.children = expand();
+          }
+          child = select(node);
+          fresh = child.visits == 0;
+          // virtual loss: the game counts as a loss here until its result comes in.
+          child.visits++;
+          node.childVisits++;
+        }
+        play(child.cell);
+        path[length++] = child;
+        node = child;
+      }
+
+      int moves = length;
+      while (!board.isGameOver()) {
+        play(randomMove());
+        moves++;
+      }
+      int diff = board.getBlackScore() - board.getWhiteScore();
+
+      Node parent = root;
+      for (int i = 0; i < length; i++) {
+        Node child = path[i];
+        synchronized (parent) {
+          child.wins += diff == 0 ? 0.5 : (diff > 0) == child.blackMoved ? 1 : 0;
+        }
+        parent = child;
+      }
+      for (int i = 0; i < moves; i++) {
+        board.undo();
+      }
+    }
+
+    /**
+     * Makes the nodes for every move from the current position, or a pass if there aren't any.
+     * @return the new children.
+     */
+    private Node[] expand() {
+      boolean black = board.isBlackTurn();
+      int count = 0;
+      for (int cell = 0; cell < board.getCellCount(); cell++) {
+        if (board.isLegal(cell)) {
+          count++;
+        }
+      }
+      if (count == 0) {
+        return new Node[] {new Node(-1, black)};
+      }
+      Node[] children = new Node[count];
+      count = 0;
+      for (int cell = 0; cell < board.getCellCount(); cell++) {
+        if (board.isLegal(cell)) {
+          children[count++] = new Node(cell, black);
+        }
+      }
+      return children;
+    }
+
+    /**
+     * Picks the child with the best upper confidence bound: untried moves first, then a mix of
+     * the moves that win the most and the moves that have been tried the least.
+     * Must hold the node's lock.
+     * @param node the node to pick from
+     * @return the child to go down.
+     */
+    private Node select(Node node) {
+      Node best = null;
+      double bestValue = Double.NEGATIVE_INFINITY;
+      double logVisits = Math.log(node.childVisits + 1);
+      for (Node child : node.children) {
+        if (child.visits == 0) {
+          return child;
+        }
+        double value = child.wins / child.visits
+                + EXPLORATION * Math.sqrt(logVisits / child.visits);
+        if (value > bestValue) {
+          best = child;
+          bestValue = value;
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Picks a legal move uniformly at random, by walking the tiles once.
+     * @return the tile index of the move, or -1 to pass.
+     */
+    private int randomMove() {
+      int chosen = -1;
+      int seen = 0;
+      for (int cell = 0; cell < board.getCellCount(); cell++) {
+        if (board.isLegal(cell)) {
+          seen++;
+          // keeps each of the legal moves seen so far with the same chance.
+          if (random.nextInt(seen) == 0) {
+            chosen = cell;
+          }
+        }
+      }
+      return chosen;
+    }
+
+    /**
+     * Makes a move on this worker's board.
+     * @param cell the tile index of the move, or -1 to pass
+     */
+    private void play(int cell) {
+      if (cell < 0) {
+        board.pass();
+      } else {
+        board.move(board.getCoordinate(cell));
+      }
+    }
+  }
+
+  /**
+   * The number of games played in the last search.
+   * @return the playout count.
+   */
+  public long getLastPlayouts() {
+    return lastPlayouts;
+  }
+
+  /**
+   * How fast the last search went.
+   * @return games played per second.
+   */
+  public long getLastPlayoutsPerSecond() {
+    return elapsed == 0 ? 0 : lastPlayouts * 1_000_000_000 / elapsed;
+  }
+}
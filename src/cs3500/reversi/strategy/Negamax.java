@@ -0,0 +1,520 @@
+package cs3500.reversi.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.ObservableReversiModel;
+import cs3500.reversi.model.ReversiModel;
+
+/**
+ * Searches ahead with negamax and alpha-beta pruning, deepening one move at a time until it
+ * runs out of time, and plays the best move from the deepest search it finished.
+ * Works on any board: the search makes and undoes moves on its own copy of the model.
+ * Positions already searched are remembered in a {@link TranspositionTable}, which is kept
+ * between moves, so a player reusing the same strategy starts each turn with what it learned
+ * on the last one.
+ * With more than one thread, the extra threads search the same position at the same time with
+ * their moves in a different order, some a move deeper, and share what they find through the
+ * table (lazy SMP). The move comes from whichever thread finished the deepest search. With one
+ * thread the search runs on the caller's thread and always picks the same move. The extra
+ * threads come from a pool every search shares, so there's nothing to shut down.
+ * Positions are scored by counting discs, moves and corners, or with {@link PatternWeights} if
+ * it's given some, which each thread keeps up to date as it makes and takes back moves.
+ * Given a {@link GameClock} instead of a budget, it asks the clock how long to think before
+ * every move.
+ * A Negamax can only run one search at a time.
+ */
+public class Negamax implements DynamicStrat {
+  // bigger than any evaluation, so a won game always beats a good looking position.
+  static final int WIN = 1_000_000;
+  static final int INFINITY = WIN * 2;
+  // how many nodes to search between checks of the clock.
+  private static final int CLOCK_INTERVAL = 1024;
+  // the size of the transposition table when one isn't given, in megabytes.
+  static final int DEFAULT_TABLE_SIZE = 16;
+
+  // the deepest the search will go, in moves.
+  private final int maxDepth;
+  // how long the search can take, in milliseconds.
+  private final long budget;
+  // where the budget comes from for each move instead, or null to always use the same one.
+  private final GameClock clock;
+  // what's known about positions searched before.
+  private final TranspositionTable table;
+  // how many threads search at once.
+  private final int threads;
+  // the learned weights to score positions with, or null to use evaluate().
+  private final PatternWeights patterns;
+
+  // the tile indices of the board's corners, set at the start of a search.
+  private int[] corners;
+  // when the current search has to stop, from System.nanoTime().
+  private long deadline;
+  // set when every thread should give up on the search.
+  private volatile boolean stopped;
+  // stats from the last search.
+  private long nodes;
+  private int depthReached;
+  private long elapsed;
+
+  /**
+   * Constructs a search that deepens until it runs out of time.
+   * @param budget how long a move can take, in milliseconds.
+   */
+  public Negamax(long budget) {
+    this(Integer.MAX_VALUE, budget);
+  }
+
+  /**
+   * Constructs a search that deepens until it reaches a depth or runs out of time.
+   * @param maxDepth the deepest the search will go, in moves. Must be at least 1.
+   * @param budget   how long a move can take, in milliseconds. Must be positive.
+   */
+  public Negamax(int maxDepth, long budget) {
+    this(maxDepth, budget, new TranspositionTable(DEFAULT_TABLE_SIZE));
+  }
+
+  /**
+   * Constructs a search that remembers positions in the given table.
+   * @param maxDepth the deepest the search will go, in moves. Must be at least 1.
+   * @param budget   how long a move can take, in milliseconds. Must be positive.
+   * @param table    the table to remember positions in; only share it between searches of the
+   *                 same game.
+   */
+  public Negamax(int maxDepth, long budget, TranspositionTable table) {
+    this(maxDepth, budget, table, 1);
+  }
+
+  /**
+   * Constructs a search that runs on several threads at once.
+   * @param maxDepth the deepest the search will go, in moves. Must be at least 1.
+   * @param budget   how long a move can take, in milliseconds. Must be positive.
+   * @param table    the table to remember positions in; only share it between searches of the
+   *                 same game.
+   * @param threads  how many threads to search with, including the caller's. Must be positive.
+   */
+  public Negamax(int maxDepth, long budget, TranspositionTable table, int threads) {
+    this(maxDepth, budget, table, threads, null);
+  }
+
+  /**
+   * Constructs a search that scores positions with learned pattern weights instead of counting
+   * discs, moves and corners.
+   * @param maxDepth the deepest the search will go, in moves. Must be at least 1.
+   * @param budget   how long a move can take, in milliseconds. Must be positive.
+   * @param table    the table to remember positions in; only share it between searches of the
+   *                 same game.
+   * @param threads  how many threads to search with, including the caller's. Must be positive.
+   * @param patterns the weights, for the board that will be searched, or null to not use any.
+   */
+  public Negamax(int maxDepth, long budget, TranspositionTable table, int threads,
+                 PatternWeights patterns) {
+    this(maxDepth, budget, null, table, threads, patterns);
+  }
+
+  /**
+   * Constructs a search that deepens for as long as a game's clock says it can spend on each
+   * move.
+   * @param clock    the clock of the game that will be searched.
+   * @param table    the table to remember positions in; only share it between searches of the
+   *                 same game.
+   * @param threads  how many threads to search with, including the caller's. Must be positive.
+   * @param patterns the weights, for the board that will be searched, or null to not use any.
+   */
+  public Negamax(GameClock clock, TranspositionTable table, int threads,
+                 PatternWeights patterns) {
+    this(Integer.MAX_VALUE, 1, clock, table, threads, patterns);
+    if (clock == null) {
+      throw new IllegalArgumentException("Clock can't be null!");
+    }
+  }
+
+  private Negamax(int maxDepth, long budget, GameClock clock, TranspositionTable table,
+                  int threads, PatternWeights patterns) {
+    if (maxDepth < 1 || budget <= 0) {
+      throw new IllegalArgumentException("Need a positive depth and time budget!");
+    }
+    if (table == null) {
+      throw new IllegalArgumentException("Table can't be null!");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("Need at least one thread!");
+    }
+    this.maxDepth = maxDepth;
+    this.budget = budget;
+    this.clock = clock;
+    this.table = table;
+    this.threads = threads;
+    this.patterns = patterns;
+  }
+
+  /**
+   * Chooses the move with the best score from the deepest search that finished in time.
+   * @param m the board the move is being made for.
+   * @return the best move found, or empty if there are no legal moves.
+   */
+  @Override
+  public Optional<Coordinate> chooseMove(ObservableReversiModel m) {
+    return rankMoves(m).map(moves -> moves.get(0));
+  }
+
+  /**
+   * Searches every legal move, deeper and deeper until the time runs out.
+   * @param m the model
+   * @return the legal moves from best to worst, according to the deepest search that finished.
+   *         Only the first move's score is exact, the rest are ordered by their bounds.
+   */
+  @Override
+  public Optional<List<Coordinate>> rankMoves(ObservableReversiModel m) {
+    List<Coordinate> legal = m.getLegalMoves();
+    if (legal.isEmpty()) {
+      return Optional.empty();
+    }
+    long start = System.nanoTime();
+    deadline = start + (clock == null ? budget : clock.getMoveBudget(m)) * 1_000_000;
+    stopped = false;
+    corners = cornerCells(m);
+    table.newSearch();
+
+    Worker[] workers = new Worker[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new Worker(m.copy(), legal, i, m.getEmptyCount());
+    }
+    List<Future<?>> running = new ArrayList<>();
+    for (int i = 1; i < threads; i++) {
+      running.add(SearchHelpers.INSTANCE.submit(workers[i]));
+    }
+    workers[0].run();
+    // once the main thread is done there's no point in the helpers going on.
+    stopped = true;
+    waitFor(running);
+
+    Worker deepest = workers[0];
+    nodes = 0;
+    for (Worker worker : workers) {
+      nodes += worker.nodes;
+      if (worker.depthReached > deepest.depthReached) {
+        deepest = worker;
+      }
+    }
+    depthReached = deepest.depthReached;
+    elapsed = System.nanoTime() - start;
+    return Optional.of(deepest.ranked);
+  }
+
+  /**
+   * One thread's search: its own copy of the board, its own move order, and its own results.
+   */
+  private final class Worker implements Runnable {
+    private final ReversiModel board;
+    // keeps up with the board's patterns, or null if there are no pattern weights.
+    private final PatternEvaluator evaluator;
+    // which thread this is; 0 is the caller's.
+    private final int id;
+    // the number of empty tiles at the root, the search never needs to go deeper.
+    private final int empties;
+    // the root moves, best first after each finished depth.
+    private List<Coordinate> ranked;
+    private long nodes;
+    private int depthReached;
+
+    /**
+     * Constructs a worker.
+     * @param board   a copy of the board to search
+     * @param legal   the legal moves at the root
+     * @param id      which thread this is, 0 for the caller's
+     * @param empties the number of empty tiles at the root
+     */
+    Worker(ReversiModel board, List<Coordinate> legal, int id, int empties) {
+      this.board = board;
+      this.evaluator = patterns == null ? null : patterns.newEvaluator(board);
+      this.id = id;
+      this.empties = empties;
+      this.ranked = new ArrayList<>(legal);
+      // helpers start the root moves at different places so they don't all search the same
+      // thing at the same time.
+      for (int i = 0; i < id % legal.size(); i++) {
+        ranked.add(ranked.remove(0));
+      }
+    }
+
+    @Override
+    public void run() {
+      // every other helper skips a depth, so some threads are always ahead of the main one.
+      for (int depth = 1 + id % 2; depth <= maxDepth && !stopped; depth++) {
+        int[] scores = new int[ranked.size()];
+        int alpha = -INFINITY;
+        for (int i = 0; i < ranked.size() && !stopped; i++) {
+          play(ranked.get(i));
+          scores[i] = -search(depth - 1, -INFINITY, -alpha);
+          unplay();
+          alpha = Math.max(alpha, scores[i]);
+        }
+        if (stopped) {
+          // the unfinished depth can't be trusted, keep the last ranking.
+          break;
+        }
+        ranked = sortByScore(ranked, scores);
+        depthReached = depth;
+        if (depth >= empties) {
+          // searched to the end of the game, going deeper won't change anything.
+          break;
+        }
+      }
+    }
+
+    /**
+     * Makes a move on this thread's board, keeping the patterns up to date.
+     * @param move the move
+     */
+    private void play(Coordinate move) {
+      board.move(move);
+      if (evaluator != null) {
+        evaluator.applyLast(board);
+      }
+    }
+
+    /**
+     * Takes back the last move on this thread's board, keeping the patterns up to date.
+     */
+    private void unplay() {
+      if (evaluator != null) {
+        evaluator.revertLast(board);
+      }
+      board.undo();
+    }
+
+    /**
+     * Scores a position for the player whose turn it is, looking the given number of moves ahead.
+     * @param depth how many more moves to look ahead
+     * @param alpha the score the player is already guaranteed elsewhere
+     * @param beta  the score the opponent is already guaranteed elsewhere
+     * @return the score of the position, or a bound on it if it's outside alpha..beta.
+     */
+    private int search(int depth, int alpha, int beta) {
+      nodes++;
+      // the caller's thread is interrupted when whoever asked for the move can't wait any more.
+      if (nodes % CLOCK_INTERVAL == 0
+              && (System.nanoTime() > deadline || Thread.currentThread().isInterrupted())) {
+        stopped = true;
+      }
+      if (stopped) {
+        return 0;
+      }
+      if (board.isGameOver()) {
+        return finalScore(board);
+      }
+      List<Coordinate> moves = board.getLegalMoves();
+      if (depth == 0) {
+        if (evaluator == null) {
+          return evaluate(board, moves.size());
+        }
+        return board.isBlackTurn() ? evaluator.evaluate() : -evaluator.evaluate();
+      }
+      if (moves.isEmpty()) {
+        // passing doesn't use up any depth, the game ends if both players have to pass.
+        board.pass();
+        int score = -search(depth, -beta, -alpha);
+        board.undo();
+        return score;
+      }
+
+      long hash = board.getPositionHash();
+      long entry = table.probe(hash);
+      int hashMove = -1;
+      if (entry != TranspositionTable.MISS) {
+        hashMove = TranspositionTable.move(entry);
+        if (TranspositionTable.depth(entry) >= depth) {
+          int score = TranspositionTable.score(entry);
+          switch (TranspositionTable.bound(entry)) {
+            case TranspositionTable.EXACT:
+              return score;
+            case TranspositionTable.LOWER:
+              if (score >= beta) {
+                return score;
+              }
+              break;
+            default:
+              if (score <= alpha) {
+                return score;
+              }
+              break;
+          }
+        }
+      }
+
+      int originalAlpha = alpha;
+      int best = -INFINITY;
+      int bestMove = -1;
+      // the best move from last time is the most likely to cut off the search, so it goes first.
+      boolean triedHashMove = hashMove >= 0 && board.isLegal(hashMove);
+      if (triedHashMove) {
+        play(board.getCoordinate(hashMove));
+        best = -search(depth - 1, -beta, -alpha);
+        unplay();
+        bestMove = hashMove;
+        alpha = Math.max(alpha, best);
+      }
+      for (int i = 0; i < moves.size() && alpha < beta; i++) {
+        Coordinate move = moves.get(i);
+        int cell = board.getCellIndex(move);
+        if (triedHashMove && cell == hashMove) {
+          continue;
+        }
+        play(move);
+        int score = -search(depth - 1, -beta, -alpha);
+        unplay();
+        if (score > best) {
+          best = score;
+          bestMove = cell;
+          alpha = Math.max(alpha, score);
+        }
+      }
+      if (!stopped) {
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(hash, depth, bound, best, bestMove);
+      }
+      return best;
+    }
+  }
+
+  /**
+   * Guesses how good a position is for the player whose turn it is: having more options, owning
+   * the corners, and having more discs are all good.
+   * @param board    the board
+   * @param mobility the number of legal moves the player has
+   * @return the score, positive if the player is ahead.
+   */
+  int evaluate(ObservableReversiModel board, int mobility) {
+    boolean black = board.isBlackTurn();
+    int discs = board.getBlackScore() - board.getWhiteScore();
+    int cornerDiscs = 0;
+    for (int corner : corners) {
+      if (board.hasPiece(corner)) {
+        cornerDiscs += board.isTileBlack(corner) ? 1 : -1;
+      }
+    }
+    if (!black) {
+      discs = -discs;
+      cornerDiscs = -cornerDiscs;
+    }
+    return discs + 5 * mobility + 25 * cornerDiscs;
+  }
+
+  /**
+   * Scores a finished game for the player whose turn it would be.
+   * @param board the board
+   * @return more than {@link #WIN} for a win, less than -WIN for a loss, 0 for a draw.
+   */
+  static int finalScore(ObservableReversiModel board) {
+    int discs = board.getBlackScore() - board.getWhiteScore();
+    if (!board.isBlackTurn()) {
+      discs = -discs;
+    }
+    return Integer.signum(discs) * WIN + discs;
+  }
+
+  /**
+   * Finds the tile indices of the board's corners: the tiles with the fewest neighbors, which
+   * works for any shape of board.
+   * @param m the board
+   * @return the tile indices of the corners.
+   */
+  static int[] cornerCells(ObservableReversiModel m) {
+    int[] neighbors = new int[m.getCellCount()];
+    int fewest = Integer.MAX_VALUE;
+    for (int cell = 0; cell < m.getCellCount(); cell++) {
+      Coordinate tile = m.getCoordinate(cell);
+      for (Coordinate dir : m.getDirections()) {
+        if (m.isInBounds(new Coordinate(tile.c + dir.c, tile.r + dir.r))) {
+          neighbors[cell]++;
+        }
+      }
+      fewest = Math.min(fewest, neighbors[cell]);
+    }
+    final int corner = fewest;
+    return IntStream.range(0, m.getCellCount())
+            .filter(cell -> neighbors[cell] == corner)
+            .toArray();
+  }
+
+  /**
+   * Sorts moves by score from best to worst, keeping the old order between equal scores.
+   * @param moves  the moves
+   * @param scores the score of each move
+   * @return the sorted moves.
+   */
+  private static List<Coordinate> sortByScore(List<Coordinate> moves, int[] scores) {
+    List<Integer> order = new ArrayList<>();
+    for (int i = 0; i < moves.size(); i++) {
+      order.add(i);
+    }
+    order.sort((i1, i2) -> Integer.compare(scores[i2], scores[i1]));
+    List<Coordinate> sorted = new ArrayList<>();
+    for (int i : order) {
+      sorted.add(moves.get(i));
+    }
+    return sorted;
+  }
+
+  /**
+   * Waits for the helpers to finish, and drops the ones still waiting for a thread. They stop
+   * soon after the caller's search does, so this keeps waiting even if the caller is
+   * interrupted, and interrupts it again afterward.
+   * @param running the helpers
+   * @throws IllegalStateException if a helper failed.
+   */
+  static void waitFor(List<Future<?>> running) {
+    boolean interrupted = false;
+    for (Future<?> helper : running) {
+      helper.cancel(false);
+      while (true) {
+        try {
+          helper.get();
+          break;
+        } catch (CancellationException e) {
+          // never started, so there's nothing to wait for.
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("A search thread failed!", e.getCause());
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * The number of positions looked at in the last search.
+   * @return the node count.
+   */
+  public long getLastNodes() {
+    return nodes;
+  }
+
+  /**
+   * The deepest search that finished last time.
+   * @return the depth, in moves.
+   */
+  public int getLastDepth() {
+    return depthReached;
+  }
+
+  /**
+   * How fast the last search went.
+   * @return positions looked at per second.
+   */
+  public long getLastNodesPerSecond() {
+    return elapsed == 0 ? 0 : nodes * 1_000_000_000 / elapsed;
+  }
+}
@@ -0,0 +1,177 @@
+package cs3500.reversi.strategy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.Random;
+
+import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.ObservableReversiModel;
+
+/**
+ * Plays moves out of a book of openings: a file listing, for positions seen in earlier games,
+ * the moves played from them and how well each one worked out. Has no move for positions that
+ * aren't in the book, so it can go in front of any other strategy in a {@link TryTwo} or
+ * {@link TryN}. Books are made with {@link BookBuilder}.
+ * The file is memory mapped rather than read in, and positions are found by binary search, so
+ * opening even a big book is instant and only the pages that get looked at are ever loaded.
+ * File format, big-endian: the int {@link #MAGIC}, the int {@link #VERSION}, the int number of
+ * entries, then the entries sorted by position hash and then move. Each entry is the long
+ * position hash (see {@link ObservableReversiModel#getPositionHash()}), the int tile index of
+ * the move, and the int weight of the move.
+ */
+public class OpeningBook implements FallibleStrat {
+  // marks a file as a book: "RVBK".
+  static final int MAGIC = 0x5256424b;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 12;
+  static final int ENTRY_BYTES = 16;
+
+  // the entries of the book, mapped straight from the file.
+  private final ByteBuffer entries;
+  private final int count;
+  // picks between book moves by weight, or null to always play the heaviest.
+  private final Random random;
+
+  /**
+   * Opens a book that always plays the move with the most weight.
+   * @param file the book file
+   * @throws IllegalArgumentException if the file can't be read or isn't a book.
+   */
+  public OpeningBook(Path file) {
+    this(file, null);
+  }
+
+  /**
+   * Opens a book that picks between the moves at random, more often the heavier ones.
+   * @param file   the book file
+   * @param random where to get random numbers from, or null to always play the heaviest move.
+   * @throws IllegalArgumentException if the file can't be read or isn't a book.
+   */
+  public OpeningBook(Path file, Random random) {
+    ByteBuffer mapped;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      // the mapping stays valid after the channel is closed.
+      mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Couldn't read the book " + file, e);
+    }
+    if (mapped.capacity() < HEADER_BYTES || mapped.getInt(0) != MAGIC
+            || mapped.getInt(4) != VERSION) {
+      throw new IllegalArgumentException(file + " isn't an opening book!");
+    }
+    this.count = mapped.getInt(8);
+    if (count < 0 || mapped.capacity() != HEADER_BYTES + (long) count * ENTRY_BYTES) {
+      throw new IllegalArgumentException(file + " is cut off or corrupted!");
+    }
+    this.entries = mapped;
+    this.random = random;
+  }
+
+  /**
+   * Plays a book move, if the position is in the book.
+   * @param m the board the move is being made for.
+   * @return a book move, or empty if the position isn't in the book or none of its moves work.
+   */
+  @Override
+  public Optional<Coordinate> chooseMove(ObservableReversiModel m) {
+    long hash = m.getPositionHash();
+    int first = firstEntry(hash);
+    int total = 0;
+    int heaviest = -1;
+    // moves are checked for legality in case two positions happen to share a hash.
+    for (int i = first; i < count && hash(i) == hash; i++) {
+      if (isPlayable(m, i)) {
+        total += weight(i);
+        if (heaviest < 0 || weight(i) > weight(heaviest)) {
+          heaviest = i;
+        }
+      }
+    }
+    if (heaviest < 0) {
+      return Optional.empty();
+    }
+    if (random == null) {
+      return Optional.of(m.getCoordinate(move(heaviest)));
+    }
+    int pick = random.nextInt(total);
+    int i = first;
+    for (; ; i++) {
+      if (isPlayable(m, i)) {
+        pick -= weight(i);
+        if (pick < 0) {
+          break;
+        }
+      }
+    }
+    return Optional.of(m.getCoordinate(move(i)));
+  }
+
+  /**
+   * Checks if a book move can be played.
+   * @param m the board
+   * @param i the entry
+   * @return true iff the move has weight and is legal.
+   */
+  private boolean isPlayable(ObservableReversiModel m, int i) {
+    int move = move(i);
+    return weight(i) > 0 && move >= 0 && move < m.getCellCount() && m.isLegal(move);
+  }
+
+  /**
+   * Binary searches for the first entry of a position.
+   * @param hash the position's hash
+   * @return the index of the first entry with that hash or a bigger one, count if none are.
+   */
+  private int firstEntry(long hash) {
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (hash(mid) < hash) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Gets the number of entries in the book.
+   * @return the number of (position, move) pairs.
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Reads an entry's position hash.
+   * @param i the entry
+   * @return the hash.
+   */
+  long hash(int i) {
+    return entries.getLong(HEADER_BYTES + i * ENTRY_BYTES);
+  }
+
+  /**
+   * Reads an entry's move.
+   * @param i the entry
+   * @return the tile index of the move.
+   */
+  int move(int i) {
+    return entries.getInt(HEADER_BYTES + i * ENTRY_BYTES + 8);
+  }
+
+  /**
+   * Reads an entry's weight.
+   * @param i the entry
+   * @return the weight.
+   */
+  int weight(int i) {
+    return entries.getInt(HEADER_BYTES + i * ENTRY_BYTES + 12);
+  }
+}
@@ -0,0 +1,160 @@
+package cs3500.reversi.strategy;
+
+import cs3500.reversi.model.MoveResult;
+import cs3500.reversi.model.ObservableReversiModel;
+
+/**
+ * Keeps track of which weight each pattern of a {@link PatternWeights} is on for one board,
+ * updating just the patterns a changed tile is in, so scoring a position only has to add up
+ * one weight per pattern. Each board being searched needs its own evaluator, but they can all
+ * share the same weights.
+ */
+public final class PatternEvaluator {
+  // tile states, as read into the pattern indices.
+  private static final int EMPTY = 0;
+  private static final int BLACK = 1;
+  private static final int WHITE = 2;
+
+  private final PatternWeights weights;
+  // the current index into each pattern's table.
+  private final int[] indices;
+  // the tiles the last move flipped, read from the board into the same array every move.
+  private final int[] flips;
+
+  /**
+   * Constructs an evaluator that's up to date with a board.
+   * @param weights the weights
+   * @param board   the board to track
+   */
+  PatternEvaluator(PatternWeights weights, ObservableReversiModel board) {
+    if (board.getCellCount() != weights.cells) {
+      throw new IllegalArgumentException("These weights are for a different board!");
+    }
+    this.weights = weights;
+    this.indices = new int[weights.patterns.length];
+    this.flips = new int[weights.cells];
+    reset(board);
+  }
+
+  /**
+   * Reads every tile of a board again, after it was changed without telling the evaluator.
+   * @param board the board
+   */
+  public void reset(ObservableReversiModel board) {
+    for (int p = 0; p < indices.length; p++) {
+      int index = 0;
+      int[] pattern = weights.patterns[p];
+      for (int i = pattern.length - 1; i >= 0; i--) {
+        index = index * 3 + state(board, pattern[i]);
+      }
+      indices[p] = index;
+    }
+  }
+
+  /**
+   * Reads the state of a tile.
+   * @param board the board
+   * @param cell  the tile index
+   * @return EMPTY, BLACK or WHITE.
+   */
+  static int state(ObservableReversiModel board, int cell) {
+    if (!board.hasPiece(cell)) {
+      return EMPTY;
+    }
+    return board.isTileBlack(cell) ? BLACK : WHITE;
+  }
+
+  /**
+   * Updates the patterns a tile is in after it changed.
+   * @param cell the tile index
+   * @param from the state it was in: 0 for empty, 1 for black, 2 for white
+   * @param to   the state it's in now
+   */
+  public void update(int cell, int from, int to) {
+    int[] patterns = weights.tilePatterns[cell];
+    int[] powers = weights.tilePowers[cell];
+    int change = to - from;
+    for (int i = 0; i < patterns.length; i++) {
+      indices[patterns[i]] += change * powers[i];
+    }
+  }
+
+  /**
+   * Updates the patterns after a move.
+   * @param move what the move changed
+   */
+  public void apply(MoveResult move) {
+    int own = move.isBlack() ? BLACK : WHITE;
+    update(move.getPlacedCell(), EMPTY, own);
+    for (int i = 0; i < move.getFlipCount(); i++) {
+      update(move.getFlippedCell(i), BLACK + WHITE - own, own);
+    }
+  }
+
+  /**
+   * Updates the patterns after a move is taken back.
+   * @param move what the move had changed
+   */
+  public void revert(MoveResult move) {
+    int own = move.isBlack() ? BLACK : WHITE;
+    update(move.getPlacedCell(), own, EMPTY);
+    for (int i = 0; i < move.getFlipCount(); i++) {
+      update(move.getFlippedCell(i), own, BLACK + WHITE - own);
+    }
+  }
+
+  /**
+   * Updates the patterns after a move, reading what it changed from the board's history.
+   * Unlike {@link #apply}, nothing is allocated, so this is the one to use in searches.
+   * @param board the board the move was just made on
+   */
+  public void applyLast(ObservableReversiModel board) {
+    int cell = board.getLastMoveCell();
+    if (cell < 0) {
+      return;
+    }
+    int own = board.isTileBlack(cell) ? BLACK : WHITE;
+    update(cell, EMPTY, own);
+    int count = board.getLastFlips(flips);
+    for (int i = 0; i < count; i++) {
+      update(flips[i], BLACK + WHITE - own, own);
+    }
+  }
+
+  /**
+   * Updates the patterns for taking back the last move, before the board takes it back.
+   * @param board the board, with the move still on top of its history
+   */
+  public void revertLast(ObservableReversiModel board) {
+    int cell = board.getLastMoveCell();
+    if (cell < 0) {
+      return;
+    }
+    int own = board.isTileBlack(cell) ? BLACK : WHITE;
+    update(cell, own, EMPTY);
+    int count = board.getLastFlips(flips);
+    for (int i = 0; i < count; i++) {
+      update(flips[i], own, BLACK + WHITE - own);
+    }
+  }
+
+  /**
+   * Scores the board by adding up the weights of its patterns.
+   * @return the score for black, in {@link PatternWeights#UNITS}ths of a disc.
+   */
+  public int evaluate() {
+    int score = 0;
+    for (int p = 0; p < indices.length; p++) {
+      score += weights.tables[p][indices[p]];
+    }
+    return score;
+  }
+
+  /**
+   * Gets the index into each pattern's table, for training.
+   * @return a copy of the indices.
+   */
+  int[] indices() {
+    return indices.clone();
+  }
+}
@@ -0,0 +1,211 @@
+package cs3500.reversi.strategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.ObservableReversiModel;
+import cs3500.reversi.model.ReversiModel;
+
+/**
+ * Fits {@link PatternWeights} to games: every position from a game is labeled with how many
+ * discs black won or lost the game by, and the weights are moved by gradient descent until the
+ * patterns of each position add up as close to its label as they can. Each epoch splits the
+ * positions between threads, which work out the gradient of their share at the same time.
+ * Weights that show up in fewer positions take bigger steps, so rare patterns still learn.
+ */
+public class PatternTrainer {
+  // the board the weights are for, with all zero weights.
+  private final PatternWeights shape;
+  // the pattern indices of every recorded position, and its label in weight units.
+  private final List<int[]> positions = new ArrayList<>();
+  private final List<Integer> labels = new ArrayList<>();
+  // the mean squared error of the last epoch, in discs squared.
+  private double lastError;
+
+  /**
+   * Constructs a trainer without any positions.
+   * @param board a board of the shape and size to train weights for
+   */
+  public PatternTrainer(ObservableReversiModel board) {
+    this.shape = new PatternWeights(board);
+  }
+
+  /**
+   * Records a position from a finished game.
+   * @param board     the position
+   * @param finalDiff black's discs minus white's at the end of the game
+   */
+  public void addPosition(ObservableReversiModel board, int finalDiff) {
+    positions.add(shape.newEvaluator(board).indices());
+    labels.add(finalDiff * PatternWeights.UNITS);
+  }
+
+  /**
+   * Plays games of a strategy against itself and records every position from them. So the
+   * games don't all go the same way, moves are sometimes picked at random.
+   * @param newGame    makes the board each game starts on
+   * @param games      how many games to play
+   * @param strategy   how both players pick their moves
+   * @param random     where the random moves come from
+   * @param randomness the chance of a move being random instead of the strategy's
+   */
+  public void selfPlay(Supplier<ReversiModel> newGame, int games, FallibleStrat strategy,
+                       Random random, double randomness) {
+    for (int game = 0; game < games; game++) {
+      ReversiModel model = newGame.get();
+      PatternEvaluator tracker = shape.newEvaluator(model);
+      List<int[]> played = new ArrayList<>();
+      while (!model.isGameOver()) {
+        List<Coordinate> legal = model.getLegalMoves();
+        if (legal.isEmpty()) {
+          model.pass();
+          continue;
+        }
+        played.add(tracker.indices());
+        Coordinate move = random.nextDouble() < randomness
+                ? legal.get(random.nextInt(legal.size()))
+                : strategy.chooseMove(model).orElse(legal.get(0));
+        tracker.apply(model.playMove(move));
+      }
+      played.add(tracker.indices());
+      int diff = model.getBlackScore() - model.getWhiteScore();
+      for (int[] position : played) {
+        positions.add(position);
+        labels.add(diff * PatternWeights.UNITS);
+      }
+    }
+  }
+
+  /**
+   * Gets the number of recorded positions.
+   * @return the number of positions.
+   */
+  public int size() {
+    return positions.size();
+  }
+
+  /**
+   * Fits weights to the recorded positions, starting from zero.
+   * @param epochs  how many passes of gradient descent to make
+   * @param rate    how much of the error to take out each epoch, between 0 and 1
+   * @param threads how many threads to work out the gradient with
+   * @return the fitted weights.
+   */
+  public PatternWeights train(int epochs, double rate, int threads) {
+    if (epochs < 0 || rate <= 0 || rate > 1 || threads < 1) {
+      throw new IllegalArgumentException("Need some epochs, a rate in (0, 1], and a thread!");
+    }
+    int patterns = shape.patterns.length;
+    float[][] weights = new float[patterns][];
+    int[][] counts = new int[patterns][];
+    for (int p = 0; p < patterns; p++) {
+      weights[p] = new float[shape.tables[p].length];
+      counts[p] = new int[shape.tables[p].length];
+    }
+    for (int[] position : positions) {
+      for (int p = 0; p < patterns; p++) {
+        counts[p][position[p]]++;
+      }
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      float[][][] gradients = new float[threads][patterns][];
+      for (int t = 0; t < threads; t++) {
+        for (int p = 0; p < patterns; p++) {
+          gradients[t][p] = new float[weights[p].length];
+        }
+      }
+      for (int epoch = 0; epoch < epochs; epoch++) {
+        List<Future<Double>> shares = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+          int first = positions.size() * t / threads;
+          int last = positions.size() * (t + 1) / threads;
+          shares.add(pool.submit(gradient(weights, gradients[t], first, last)));
+        }
+        double error = 0;
+        for (Future<Double> share : shares) {
+          error += share.get();
+        }
+        lastError = positions.isEmpty() ? 0 : error / positions.size()
+                / (PatternWeights.UNITS * PatternWeights.UNITS);
+        for (int p = 0; p < patterns; p++) {
+          for (int i = 0; i < weights[p].length; i++) {
+            if (counts[p][i] == 0) {
+              continue;
+            }
+            float sum = 0;
+            for (float[][] gradient : gradients) {
+              sum += gradient[p][i];
+            }
+            // every pattern of a position shares its error, so each takes its part of it.
+            weights[p][i] -= rate * sum / counts[p][i] / patterns;
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Training was interrupted!", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A training thread failed!", e.getCause());
+    } finally {
+      pool.shutdown();
+    }
+
+    PatternWeights fitted = new PatternWeights(shape);
+    for (int p = 0; p < patterns; p++) {
+      for (int i = 0; i < weights[p].length; i++) {
+        fitted.tables[p][i] = (short) Math.max(Short.MIN_VALUE,
+                Math.min(Short.MAX_VALUE, Math.round(weights[p][i])));
+      }
+    }
+    return fitted;
+  }
+
+  /**
+   * Makes a task that works out the gradient of the squared error for some of the positions.
+   * @param weights  the current weights
+   * @param gradient where to put the gradient, cleared first
+   * @param first    the first position
+   * @param last     one past the last position
+   * @return the task, which gives back the sum of the squared errors.
+   */
+  private Callable<Double> gradient(float[][] weights, float[][] gradient, int first, int last) {
+    return () -> {
+      for (float[] table : gradient) {
+        Arrays.fill(table, 0);
+      }
+      double error = 0;
+      for (int n = first; n < last; n++) {
+        int[] position = positions.get(n);
+        float predicted = 0;
+        for (int p = 0; p < position.length; p++) {
+          predicted += weights[p][position[p]];
+        }
+        float diff = predicted - labels.get(n);
+        error += diff * diff;
+        for (int p = 0; p < position.length; p++) {
+          gradient[p][position[p]] += diff;
+        }
+      }
+      return error;
+    };
+  }
+
+  /**
+   * The error of the fitted weights, from the last epoch of the last training.
+   * @return the mean squared error, in discs squared.
+   */
+  public double getLastError() {
+    return lastError;
+  }
+}
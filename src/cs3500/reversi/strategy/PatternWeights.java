@@ -0,0 +1,263 @@
+package cs3500.reversi.strategy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.ObservableReversiModel;
+
+/**
+ * Learned values for small groups of tiles (patterns) on one shape and size of board: the
+ * region around each corner, and the lines running out of each corner (the edges and diagonals
+ * of a square board, the rims and long diagonals of a hexagonal one), at most
+ * {@link #MAX_LINE} tiles long. Every way a pattern's tiles can be filled in gets its own
+ * weight, in {@link #UNITS}ths of a disc for black, and a position is worth the sum of its
+ * patterns' weights. Weights are kept in one short[] table per pattern, indexed by reading the
+ * pattern's tiles as a base 3 number: 0 for empty, 1 for black, 2 for white.
+ * Weights are made by {@link PatternTrainer}, and saved and loaded in a binary file: the int
+ * {@link #MAGIC}, the int {@link #VERSION}, the int number of tiles on the board, the int number
+ * of patterns, and then for each pattern the int number of tiles, the tile indices, and the
+ * table of weights.
+ */
+public final class PatternWeights {
+  // marks a file as pattern weights: "RVPT".
+  static final int MAGIC = 0x52565054;
+  static final int VERSION = 1;
+  // how many weight units make one disc.
+  public static final int UNITS = 16;
+  // the longest line used as a pattern, which keeps each table at 3^8 = 6561 weights.
+  public static final int MAX_LINE = 8;
+  // how many steps from a corner the corner region goes.
+  private static final int CORNER_REACH = 2;
+  // the shortest line worth using as a pattern.
+  private static final int MIN_LINE = 3;
+
+  // the number of tiles on the board these weights are for.
+  final int cells;
+  // the tile indices in each pattern, in the order they are read.
+  final int[][] patterns;
+  // the weights of each pattern.
+  final short[][] tables;
+  // for each tile, the patterns it's in and what its state is worth in each of their indices.
+  final int[][] tilePatterns;
+  final int[][] tilePowers;
+
+  /**
+   * Makes all zero weights for the patterns of a board.
+   * @param board a board of the shape and size to make the weights for; only its shape is used.
+   */
+  public PatternWeights(ObservableReversiModel board) {
+    this(board.getCellCount(), findPatterns(board));
+  }
+
+  /**
+   * Makes all zero weights for the same patterns as other weights.
+   * @param other the weights to take the patterns from
+   */
+  PatternWeights(PatternWeights other) {
+    this(other.cells, other.patterns);
+  }
+
+  /**
+   * Makes all zero weights for the given patterns.
+   * @param cells    the number of tiles on the board
+   * @param patterns the tile indices in each pattern
+   */
+  private PatternWeights(int cells, int[][] patterns) {
+    this.cells = cells;
+    this.patterns = patterns;
+    this.tables = new short[patterns.length][];
+    int[] counts = new int[cells];
+    for (int p = 0; p < patterns.length; p++) {
+      tables[p] = new short[pow3(patterns[p].length)];
+      for (int cell : patterns[p]) {
+        counts[cell]++;
+      }
+    }
+    this.tilePatterns = new int[cells][];
+    this.tilePowers = new int[cells][];
+    for (int cell = 0; cell < cells; cell++) {
+      tilePatterns[cell] = new int[counts[cell]];
+      tilePowers[cell] = new int[counts[cell]];
+      counts[cell] = 0;
+    }
+    for (int p = 0; p < patterns.length; p++) {
+      for (int i = 0; i < patterns[p].length; i++) {
+        int cell = patterns[p][i];
+        tilePatterns[cell][counts[cell]] = p;
+        tilePowers[cell][counts[cell]] = pow3(i);
+        counts[cell]++;
+      }
+    }
+  }
+
+  /**
+   * Finds the corner regions and the lines out of the corners of a board.
+   * @param board the board
+   * @return the tile indices of each pattern, without duplicates.
+   */
+  private static int[][] findPatterns(ObservableReversiModel board) {
+    List<int[]> found = new ArrayList<>();
+    Set<List<Integer>> seen = new HashSet<>();
+    List<Coordinate> directions = board.getDirections();
+    for (int corner : Negamax.cornerCells(board)) {
+      Coordinate start = board.getCoordinate(corner);
+      // the corner region: every tile within a couple of steps of the corner.
+      List<Integer> region = new ArrayList<>(List.of(corner));
+      for (int reach = 0, from = 0; reach < CORNER_REACH; reach++) {
+        int to = region.size();
+        for (int i = from; i < to; i++) {
+          Coordinate tile = board.getCoordinate(region.get(i));
+          for (Coordinate dir : directions) {
+            int next = cellAt(board, tile.c + dir.c, tile.r + dir.r);
+            if (next >= 0 && !region.contains(next)) {
+              region.add(next);
+            }
+          }
+        }
+        from = to;
+      }
+      addPattern(found, seen, region);
+      // the lines running out of the corner.
+      for (Coordinate dir : directions) {
+        List<Integer> line = new ArrayList<>();
+        int next = corner;
+        while (next >= 0 && line.size() < MAX_LINE) {
+          line.add(next);
+          next = cellAt(board, start.c + dir.c * line.size(), start.r + dir.r * line.size());
+        }
+        if (line.size() >= MIN_LINE) {
+          addPattern(found, seen, line);
+        }
+      }
+    }
+    return found.toArray(new int[0][]);
+  }
+
+  /**
+   * Adds a pattern, unless one with the same tiles was already found.
+   * @param found   the patterns so far
+   * @param seen    the sorted tiles of the patterns so far
+   * @param pattern the tiles of the new pattern
+   */
+  private static void addPattern(List<int[]> found, Set<List<Integer>> seen,
+                                 List<Integer> pattern) {
+    List<Integer> sorted = new ArrayList<>(pattern);
+    sorted.sort(null);
+    if (seen.add(sorted)) {
+      found.add(pattern.stream().mapToInt(Integer::intValue).toArray());
+    }
+  }
+
+  /**
+   * Finds the tile index at a coordinate.
+   * @param board the board
+   * @param c     the column
+   * @param r     the row
+   * @return the tile index, or -1 if it's off the board.
+   */
+  private static int cellAt(ObservableReversiModel board, int c, int r) {
+    Coordinate coord = new Coordinate(c, r);
+    return board.isInBounds(coord) ? board.getCellIndex(coord) : -1;
+  }
+
+  /**
+   * Raises 3 to a power.
+   * @param n the power
+   * @return 3^n.
+   */
+  static int pow3(int n) {
+    int pow = 1;
+    for (int i = 0; i < n; i++) {
+      pow *= 3;
+    }
+    return pow;
+  }
+
+  /**
+   * Makes an evaluator that tracks a board with these weights.
+   * @param board the board to track, of the shape these weights are for
+   * @return the evaluator, already up to date with the board.
+   */
+  public PatternEvaluator newEvaluator(ObservableReversiModel board) {
+    return new PatternEvaluator(this, board);
+  }
+
+  /**
+   * Gets the number of patterns.
+   * @return the number of patterns.
+   */
+  public int getPatternCount() {
+    return patterns.length;
+  }
+
+  /**
+   * Saves the weights to a file.
+   * @param file where to save them; replaced if it already exists.
+   * @throws IOException if the file can't be written.
+   */
+  public void save(Path file) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(cells);
+      out.writeInt(patterns.length);
+      for (int p = 0; p < patterns.length; p++) {
+        out.writeInt(patterns[p].length);
+        for (int cell : patterns[p]) {
+          out.writeInt(cell);
+        }
+        for (short weight : tables[p]) {
+          out.writeShort(weight);
+        }
+      }
+    }
+  }
+
+  /**
+   * Loads weights from a file.
+   * @param file  the weights file
+   * @param board a board of the shape and size the weights are for
+   * @return the weights.
+   * @throws IllegalArgumentException if the file can't be read, isn't a weights file, or is for
+   *                                  a different board.
+   */
+  public static PatternWeights load(Path file, ObservableReversiModel board) {
+    PatternWeights expected = new PatternWeights(board);
+    try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new IllegalArgumentException(file + " isn't a pattern weights file!");
+      }
+      if (in.readInt() != expected.cells || in.readInt() != expected.patterns.length) {
+        throw new IllegalArgumentException(file + " is for a different board!");
+      }
+      for (int p = 0; p < expected.patterns.length; p++) {
+        int[] tiles = new int[in.readInt()];
+        for (int i = 0; i < tiles.length && i < expected.patterns[p].length; i++) {
+          tiles[i] = in.readInt();
+        }
+        if (!Arrays.equals(tiles, expected.patterns[p])) {
+          throw new IllegalArgumentException(file + " is for a different board!");
+        }
+        for (int i = 0; i < expected.tables[p].length; i++) {
+          expected.tables[p][i] = in.readShort();
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Couldn't read the weights " + file, e);
+    }
+    return expected;
+  }
+}
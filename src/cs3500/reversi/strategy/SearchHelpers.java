@@ -0,0 +1,34 @@
+package cs3500.reversi.strategy;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The threads that help searches along, shared by every search that runs on more than one
+ * thread, in every game. There's one per core at most, since more couldn't search any faster,
+ * and they go away once nothing has needed them for a while, so a strategy never has to be shut
+ * down. Searches whose helpers are still waiting for a thread when they're done just drop them.
+ */
+final class SearchHelpers {
+  static final ThreadPoolExecutor INSTANCE = makePool();
+  // how long a helper thread waits for more work before going away, in seconds.
+  private static final long IDLE_SECONDS = 30;
+
+  private SearchHelpers() {
+    // just a holder for the threads.
+  }
+
+  private static ThreadPoolExecutor makePool() {
+    int cores = Runtime.getRuntime().availableProcessors();
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(cores, cores, IDLE_SECONDS,
+        TimeUnit.SECONDS, new LinkedBlockingQueue<>(), task -> {
+          Thread thread = new Thread(task, "search-helper");
+          // don't keep the program running once the game is closed.
+          thread.setDaemon(true);
+          return thread;
+        });
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+}
@@ -0,0 +1,179 @@
+package cs3500.reversi.strategy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.ObservableReversiModel;
+import cs3500.reversi.model.ReversiModel;
+
+/**
+ * Plays strategies against each other without a window: every pair of players meets on every
+ * board, starting from the same random openings, and plays each opening twice so both get to
+ * be black. Games are spread over a pool of threads, each game with its own board and its own
+ * strategies, so strategies that keep state between moves don't share it.
+ * A strategy that throws instead of moving passes, like it would in a machine player; one that
+ * picks an illegal move forfeits the game.
+ */
+public class Tournament {
+  /**
+   * Makes a new strategy for one side of one game.
+   */
+  public interface Entrant {
+    /**
+     * Makes the strategy.
+     * @param board the board the game is played on
+     * @param black true iff the strategy plays black
+     * @return the strategy.
+     */
+    InFallibleStrat make(ObservableReversiModel board, boolean black);
+  }
+
+  // the players and boards, in the order they were added.
+  private final Map<String, Entrant> entrants = new LinkedHashMap<>();
+  private final Map<String, Supplier<ReversiModel>> boards = new LinkedHashMap<>();
+
+  /**
+   * Adds a player.
+   * @param name    the player's name, different from every other player's
+   * @param entrant makes the player's strategy for each game
+   */
+  public void addEntrant(String name, Entrant entrant) {
+    if (entrants.putIfAbsent(name, entrant) != null) {
+      throw new IllegalArgumentException("There's already a player called " + name + "!");
+    }
+  }
+
+  /**
+   * Adds a player whose strategy doesn't care which board or color it's playing.
+   * @param name     the player's name, different from every other player's
+   * @param strategy makes the player's strategy for each game
+   */
+  public void addEntrant(String name, Supplier<InFallibleStrat> strategy) {
+    addEntrant(name, (board, black) -> strategy.get());
+  }
+
+  /**
+   * Adds a board to play on.
+   * @param name     the board's name, different from every other board's
+   * @param newBoard makes the board each game starts on
+   */
+  public void addBoard(String name, Supplier<ReversiModel> newBoard) {
+    if (boards.putIfAbsent(name, newBoard) != null) {
+      throw new IllegalArgumentException("There's already a board called " + name + "!");
+    }
+  }
+
+  /**
+   * Plays every pair of players against each other on every board.
+   * @param openings how many openings each pair plays on each board, twice each
+   * @param plies    how many random moves each opening starts with
+   * @param seed     where the openings come from, so a tournament can be played again
+   * @param threads  how many games to play at once
+   * @return the result of each pair on each board, from the side of the player added first,
+   *         grouped by pair.
+   */
+  public List<MatchResult> play(int openings, int plies, long seed, int threads) {
+    if (entrants.size() < 2 || boards.isEmpty()) {
+      throw new IllegalArgumentException("Need at least two players and a board!");
+    }
+    if (openings < 1 || plies < 0 || threads < 1) {
+      throw new IllegalArgumentException("Need an opening, plies that aren't negative, "
+              + "and a thread!");
+    }
+    List<String> names = new ArrayList<>(entrants.keySet());
+    List<MatchResult> results = new ArrayList<>();
+    List<List<Future<int[]>>> games = new ArrayList<>();
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      for (int i = 0; i < names.size(); i++) {
+        for (int j = i + 1; j < names.size(); j++) {
+          for (Map.Entry<String, Supplier<ReversiModel>> board : boards.entrySet()) {
+            results.add(new MatchResult(names.get(i), names.get(j), board.getKey()));
+            List<Future<int[]>> match = new ArrayList<>();
+            for (int n = 0; n < openings; n++) {
+              for (boolean firstBlack : new boolean[] {true, false}) {
+                match.add(pool.submit(game(entrants.get(names.get(i)),
+                        entrants.get(names.get(j)), firstBlack, board.getValue(),
+                        plies, seed + n)));
+              }
+            }
+            games.add(match);
+          }
+        }
+      }
+      for (int m = 0; m < results.size(); m++) {
+        for (Future<int[]> game : games.get(m)) {
+          int[] outcome = game.get();
+          results.get(m).record(outcome[0], outcome[1]);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("The tournament was interrupted!", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A game failed!", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+    return results;
+  }
+
+  /**
+   * Makes a task that plays one game.
+   * @param first      the first player
+   * @param second     the second player
+   * @param firstBlack true iff the first player plays black
+   * @param newBoard   makes the board the game starts on
+   * @param plies      how many random moves the game starts with
+   * @param seed       where the random moves come from
+   * @return the task, which gives back the first player's discs minus the second's, and 1 if the
+   *         first player forfeited, -1 if the second did, or 0.
+   */
+  private static Callable<int[]> game(Entrant first, Entrant second, boolean firstBlack,
+                                      Supplier<ReversiModel> newBoard, int plies, long seed) {
+    return () -> {
+      ReversiModel board = newBoard.get();
+      Random random = new Random(seed);
+      for (int ply = 0; ply < plies && !board.isGameOver(); ply++) {
+        List<Coordinate> legal = board.getLegalMoves();
+        if (legal.isEmpty()) {
+          board.pass();
+        } else {
+          board.move(legal.get(random.nextInt(legal.size())));
+        }
+      }
+      InFallibleStrat black = (firstBlack ? first : second).make(board, true);
+      InFallibleStrat white = (firstBlack ? second : first).make(board, false);
+      int sign = firstBlack ? 1 : -1;
+      while (!board.isGameOver()) {
+        if (!board.anyValidMoves()) {
+          board.pass();
+          continue;
+        }
+        Coordinate move;
+        try {
+          move = (board.isBlackTurn() ? black : white).chooseMove(board);
+        } catch (IllegalArgumentException e) {
+          board.pass();
+          continue;
+        }
+        if (move == null || !board.isLegal(move)) {
+          int forfeit = board.isBlackTurn() == firstBlack ? 1 : -1;
+          return new int[] {sign * (board.getBlackScore() - board.getWhiteScore()), forfeit};
+        }
+        board.move(move);
+      }
+      return new int[] {sign * (board.getBlackScore() - board.getWhiteScore()), 0};
+    };
+  }
+}
@@ -0,0 +1,189 @@
+package cs3500.reversi.strategy;
+
+import java.util.Arrays;
+
+/**
+ * Remembers what a search learned about positions it has already seen, keyed by
+ * {@link cs3500.reversi.model.ObservableReversiModel#getPositionHash()}, so the same position
+ * reached through a different move order doesn't have to be searched again.
+ * The table is a fixed number of two-long entries in one long[]. Entries are written without
+ * locks: the first long of an entry holds the hash XOR'd with the second, so if two threads
+ * write the same entry at once, the torn entry just fails to match and reads as a miss.
+ * Entries are lossy; a new position replaces an old one that was searched less deeply or
+ * was stored before the current search started.
+ * An entry is read as one packed long and picked apart with the static getters, so looking
+ * something up doesn't allocate.
+ */
+public final class TranspositionTable {
+  // the bound types: whether the stored score is exact, or only a bound on the real score.
+  public static final int EXACT = 0;
+  public static final int LOWER = 1;
+  public static final int UPPER = 2;
+  // what probe() gives back for a position that isn't in the table.
+  public static final long MISS = 0;
+  // the most memory a table can use: a long[] holds under 2^31 longs, so at most 2^29 entries.
+  public static final int MAX_MEGABYTES = 8192;
+
+  // layout of the packed data: bits 0-31 score, 32-39 depth, 40-41 bound, 42-57 move + 1,
+  // 58-62 generation, 63 set so a real entry is never MISS.
+  private static final int DEPTH_SHIFT = 32;
+  private static final int BOUND_SHIFT = 40;
+  private static final int MOVE_SHIFT = 42;
+  private static final int GENERATION_SHIFT = 58;
+  private static final long FULL = 1L << 63;
+  private static final int MAX_DEPTH = 0xff;
+  private static final int MAX_MOVE = 0xfffe;
+  private static final int GENERATIONS = 32;
+  // the bytes one entry takes up.
+  private static final int ENTRY_BYTES = 16;
+
+  // two longs per entry: the hash XOR'd with the data, then the data.
+  private final long[] entries;
+  // the number of entries minus one, for turning a hash into an entry.
+  private final int mask;
+  // bumped at the start of every search so older entries are replaced first.
+  private volatile int generation;
+
+  /**
+   * Constructs an empty table.
+   * @param megabytes about how much memory the table can use. Must be positive and at most
+   *                  {@link #MAX_MEGABYTES}. The table uses the biggest power of two number of
+   *                  entries that fits.
+   */
+  public TranspositionTable(int megabytes) {
+    if (megabytes <= 0) {
+      throw new IllegalArgumentException("The table needs some memory!");
+    }
+    if (megabytes > MAX_MEGABYTES) {
+      throw new IllegalArgumentException("The table can use at most " + MAX_MEGABYTES + " MB!");
+    }
+    long fit = (long) megabytes * 1024 * 1024 / ENTRY_BYTES;
+    int size = Integer.highestOneBit((int) fit);
+    this.entries = new long[size * 2];
+    this.mask = size - 1;
+  }
+
+  /**
+   * Gets the number of positions the table can hold at once.
+   * @return the number of entries.
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Tells the table a new search is starting, so it prefers to replace entries from earlier
+   * searches. The entries are kept, so they're still found if the search reaches them again.
+   */
+  public void newSearch() {
+    generation = (generation + 1) % GENERATIONS;
+  }
+
+  /**
+   * Forgets every position, like at the start of a new game.
+   */
+  public void clear() {
+    Arrays.fill(entries, 0);
+  }
+
+  /**
+   * Looks up a position.
+   * @param hash the position's hash
+   * @return the packed entry, to be read with the static getters, or {@link #MISS}.
+   */
+  public long probe(long hash) {
+    int slot = slot(hash);
+    long check = entries[slot];
+    long data = entries[slot + 1];
+    if (data == MISS || (check ^ data) != hash) {
+      return MISS;
+    }
+    return data;
+  }
+
+  /**
+   * Records what a search found out about a position.
+   * @param hash  the position's hash
+   * @param depth how many moves ahead the position was searched, from 0 to 255
+   * @param bound whether the score is {@link #EXACT}, a {@link #LOWER} bound or {@link #UPPER}
+   * @param score the score from the point of view of the player to move
+   * @param move  the tile index of the best move found, or -1 if there isn't one
+   */
+  public void store(long hash, int depth, int bound, int score, int move) {
+    int slot = slot(hash);
+    long oldData = entries[slot + 1];
+    boolean samePosition = (entries[slot] ^ oldData) == hash;
+    if (oldData != MISS && generation(oldData) == generation && depth < depth(oldData)
+            && !samePosition) {
+      // keep the deeper result from this search.
+      return;
+    }
+    if (samePosition && move < 0) {
+      // don't forget a best move just because this search didn't find one.
+      move = move(oldData);
+    }
+    long data = FULL
+            | (long) generation << GENERATION_SHIFT
+            | (long) (Math.min(move, MAX_MOVE) + 1) << MOVE_SHIFT
+            | (long) bound << BOUND_SHIFT
+            | (long) Math.min(Math.max(depth, 0), MAX_DEPTH) << DEPTH_SHIFT
+            | (score & 0xffffffffL);
+    entries[slot] = hash ^ data;
+    entries[slot + 1] = data;
+  }
+
+  /**
+   * Finds where a position's entry goes in the array.
+   * @param hash the position's hash
+   * @return the index of the entry's first long.
+   */
+  private int slot(long hash) {
+    // mix the high bits in, the low bits of a hash aren't any more random than the rest.
+    return (int) ((hash ^ hash >>> 32) & mask) * 2;
+  }
+
+  /**
+   * Reads the score out of an entry.
+   * @param entry a packed entry from {@link #probe(long)}
+   * @return the score, for the player to move.
+   */
+  public static int score(long entry) {
+    return (int) entry;
+  }
+
+  /**
+   * Reads the search depth out of an entry.
+   * @param entry a packed entry from {@link #probe(long)}
+   * @return how many moves ahead the position was searched.
+   */
+  public static int depth(long entry) {
+    return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+  }
+
+  /**
+   * Reads the bound type out of an entry.
+   * @param entry a packed entry from {@link #probe(long)}
+   * @return {@link #EXACT}, {@link #LOWER} or {@link #UPPER}.
+   */
+  public static int bound(long entry) {
+    return (int) (entry >>> BOUND_SHIFT) & 0b11;
+  }
+
+  /**
+   * Reads the best move out of an entry.
+   * @param entry a packed entry from {@link #probe(long)}
+   * @return the tile index of the best move, or -1 if there isn't one.
+   */
+  public static int move(long entry) {
+    return (int) ((entry >>> MOVE_SHIFT) & 0xffff) - 1;
+  }
+
+  /**
+   * Reads the generation out of an entry.
+   * @param entry a packed entry
+   * @return the generation the entry was stored in.
+   */
+  private static int generation(long entry) {
+    return (int) (entry >>> GENERATION_SHIFT) & (GENERATIONS - 1);
+  }
+}
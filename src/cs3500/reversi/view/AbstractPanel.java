@@ -6,6 +6,7 @@ import java.util.Set;
 import javax.swing.JPanel;
 
 import cs3500.reversi.controller.PlayerActions;
+import cs3500.reversi.model.MoveResult;
 
 /**
  * an abstract panel supporting JPanel functions that allows a list of PlayerActions to subscribe.
@@ -21,4 +22,13 @@ public class AbstractPanel extends JPanel implements ReversiPanel {
   public void addListener(PlayerActions s) {
     this.subscribers.add(s);
   }
+
+  /**
+   * Repaints what a move changed. Repaints everything, unless the panel knows where its tiles
+   * are.
+   * @param result the tile placed and the discs flipped.
+   */
+  public void repaintTiles(MoveResult result) {
+    repaint();
+  }
 }
@@ -10,6 +10,7 @@ import java.awt.event.KeyEvent;
 import java.awt.geom.AffineTransform;
 
 import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.MoveResult;
 import cs3500.reversi.model.ObservableReversiModel;
 
 /**
@@ -36,6 +37,19 @@ public class JOverlayPanel extends JReversiPanel {
     });
   }
 
+  /**
+   * Repaints the tiles a move changed, and the selected tile too while hints are on, since every
+   * move changes what it would capture.
+   * @param result the tile placed and the discs flipped.
+   */
+  @Override
+  public void repaintTiles(MoveResult result) {
+    super.repaintTiles(result);
+    if (show && getSelected().isPresent()) {
+      repaintTile(getSelected().get());
+    }
+  }
+
   @Override
   public void paintComponent(Graphics g) {
     super.paintComponent(g);
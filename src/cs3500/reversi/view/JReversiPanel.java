@@ -4,6 +4,7 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Color;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.Dimension;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
@@ -18,6 +19,7 @@ import java.util.Optional;
 
 import cs3500.reversi.controller.PlayerActions;
 import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.MoveResult;
 import cs3500.reversi.model.ObservableReversiModel;
 
 /**
@@ -34,6 +36,8 @@ public class JReversiPanel extends AbstractPanel {
   // the pixel distance from opposing vertices in a hexagon
   protected static final int size = 52;
   private double scaleRatio = 1.0;
+  // how the board was last scaled onto the panel, or null if it hasn't been painted yet.
+  private AffineTransform boardToPanel;
 
   /**
    * Notifies all subscribers of the action.
@@ -107,6 +111,44 @@ public class JReversiPanel extends AbstractPanel {
     repaint();
   }
 
+  /**
+   * Repaints only the tiles a move changed, instead of the whole board.
+   * @param result the tile placed and the discs flipped.
+   */
+  @Override
+  public void repaintTiles(MoveResult result) {
+    if (boardToPanel == null) {
+      repaint();
+      return;
+    }
+    repaintTile(result.getPlaced());
+    for (int i = 0; i < result.getFlipCount(); i++) {
+      repaintTile(result.getFlipped(i));
+    }
+  }
+
+  /**
+   * Repaints just one tile, or the whole board if it hasn't been drawn yet.
+   * @param coord the tile.
+   */
+  protected void repaintTile(Coordinate coord) {
+    if (boardToPanel == null) {
+      repaint();
+      return;
+    }
+    repaint(boardToPanel.createTransformedShape(tileBounds(coord)).getBounds());
+  }
+
+  /**
+   * Finds the box a tile is drawn in, before the board is scaled to the panel.
+   * @param coord the tile
+   * @return the box, with a pixel to spare around it for the outline.
+   */
+  protected Rectangle tileBounds(Coordinate coord) {
+    Point p = logicalToPixel(coord);
+    return new Rectangle(p.x - 1, p.y - 1, size + 2, (int) (size * 2 / rt3) + 3);
+  }
+
   /**
    * Converts a pixel coordinate to a hexagon coordinate.
    *
@@ -179,18 +221,14 @@ public class JReversiPanel extends AbstractPanel {
 
     scaleToFit(g2d);
 
-    int boardWidth = model.getBoardWidth();
-    int boardHeight = model.getBoardHeight();
-
-    // Draw the board
-    Coordinate coord;
-    for (int r = 0; r < boardHeight; r++) {
-      for (int q = 0; q < boardWidth; q++) {
-        coord = new Coordinate(q, r);
-        if (model.isInBounds(coord)) {
-          // draws a hexagonal tile and a piece on it, if there's one there
-          drawTile(coord, JReversiPanel.size / 2, g2d);
-        }
+    // Draw the board, going over the model's tiles instead of every coordinate, and skipping
+    // the ones outside the area being repainted, like after a move.
+    Rectangle clip = g2d.getClipBounds();
+    for (int cell = 0; cell < model.getCellCount(); cell++) {
+      Coordinate coord = model.getCoordinate(cell);
+      if (clip == null || clip.intersects(tileBounds(coord))) {
+        // draws a hexagonal tile and a piece on it, if there's one there
+        drawTile(coord, JReversiPanel.size / 2, g2d);
       }
     }
   }
@@ -221,6 +259,7 @@ public class JReversiPanel extends AbstractPanel {
     }
     // perform the transform.
     g2d.transform(t);
+    boardToPanel = t;
   }
 
   protected void drawTile(Coordinate coord, int size, Graphics2D g2d) {
@@ -4,6 +4,7 @@ import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Color;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.geom.AffineTransform;
 import java.util.Optional;
 
@@ -50,6 +51,12 @@ public class JSquareReversiPanel extends JReversiPanel {
     g2d.setTransform(t);
   }
 
+  @Override
+  protected Rectangle tileBounds(Coordinate coord) {
+    Point p = logicalToPixel(coord);
+    return new Rectangle(p.x - 1, p.y - 1, size + 2, size + 2);
+  }
+
   @Override
   public Dimension getPreferredSize() {
     int width = size * model.getBoardWidth();
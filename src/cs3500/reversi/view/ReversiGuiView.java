@@ -6,6 +6,7 @@ import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 
 import cs3500.reversi.controller.PlayerActions;
+import cs3500.reversi.model.MoveResult;
 import cs3500.reversi.model.ObservableReversiModel;
 import cs3500.reversi.model.SquareReversiModel;
 
@@ -48,6 +49,15 @@ public class ReversiGuiView extends JFrame implements ReversiView {
     this.repaint();
   }
 
+  /**
+   * Repaints only the tiles a move changed.
+   * @param result the tile placed and the discs flipped.
+   */
+  @Override
+  public void update(MoveResult result) {
+    panel.repaintTiles(result);
+  }
+
   /**
    * Indicates that a requested move was not valid.
    * To be displayed to the user!
@@ -4,6 +4,7 @@ import java.io.IOException;
 
 import cs3500.reversi.controller.PlayerActions;
 import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.MoveResult;
 import cs3500.reversi.model.ObservableReversiModel;
 
 /**
@@ -67,6 +68,15 @@ public class ReversiTextualView implements ReversiView {
     this.render();
   }
 
+  /**
+   * Prints the whole board again, since text can't be changed once it's written.
+   * @param result the tile placed and the discs flipped.
+   */
+  @Override
+  public void update(MoveResult result) {
+    update();
+  }
+
   /**
    * Indicates that a requested move was not valid.
    * To be displayed to the user!
@@ -1,6 +1,7 @@
 package cs3500.reversi.view;
 
 import cs3500.reversi.controller.PlayerActions;
+import cs3500.reversi.model.MoveResult;
 
 /**
  * Represents the view for the Reversi game.
@@ -18,6 +19,12 @@ public interface ReversiView {
    */
   void update();
 
+  /**
+   * Updates the display after a move, re-rendering only what the move changed if the view can.
+   * @param result the tile placed and the discs flipped.
+   */
+  void update(MoveResult result);
+
   /**
    * Indicates that a requested move was not valid.
    * To be displayed to the user!
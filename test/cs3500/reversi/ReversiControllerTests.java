@@ -7,16 +7,44 @@ import java.awt.Robot;
 import java.awt.AWTException;
 import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import cs3500.reversi.controller.ChessClock;
 import cs3500.reversi.controller.Controller;
 import cs3500.reversi.controller.ControllerSpy;
+import cs3500.reversi.controller.GameSessionManager;
 import cs3500.reversi.controller.HumanPlayer;
+import cs3500.reversi.controller.MachinePlayer;
+import cs3500.reversi.controller.ModelStatus;
+import cs3500.reversi.controller.PlayerActions;
 import cs3500.reversi.controller.ReversiController;
+import cs3500.reversi.model.Coordinate;
 import cs3500.reversi.model.HexagonalReversiModel;
+import cs3500.reversi.model.MoveResult;
+import cs3500.reversi.strategy.FallibleStrat;
+import cs3500.reversi.strategy.Infallible;
+import cs3500.reversi.strategy.MaximizeFlips;
+import cs3500.reversi.strategy.MonteCarlo;
+import cs3500.reversi.strategy.Negamax;
+import cs3500.reversi.strategy.TranspositionTable;
 import cs3500.reversi.view.ReversiGuiView;
+import cs3500.reversi.view.ReversiTextualView;
 import cs3500.reversi.view.ReversiView;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -89,4 +117,388 @@ public class ReversiControllerTests {
     }
     assertEquals(count, 2);
   }
+
+  /**
+   * Two robots play a whole game on a big board. Each robot moves while it's being told it's
+   * their turn, so without the model queueing turns the stack would grow with every move.
+   */
+  @Test
+  public void testRobotGameDoesNotRecurse() {
+    HexagonalReversiModel big = new HexagonalReversiModel(12);
+    for (boolean black : new boolean[] {true, false}) {
+      new ReversiController(big, new MachinePlayer(black, new Infallible(new MaximizeFlips()),
+              big), new ReversiTextualView(big, Writer.nullWriter()));
+    }
+    int[] depths = {Integer.MAX_VALUE, 0, 0};
+    big.addListener(new ModelStatus() {
+      @Override
+      public void notifyTurn(boolean isBlackTurn) {
+        int depth = Thread.currentThread().getStackTrace().length;
+        depths[0] = Math.min(depths[0], depth);
+        depths[1] = Math.max(depths[1], depth);
+        depths[2]++;
+      }
+
+      @Override
+      public void notifyMove(MoveResult result) {
+        // only turns are counted.
+      }
+    });
+    big.startGame();
+    assertTrue(big.isGameOver());
+    assertFalse(big.anyValidMoves());
+    // hundreds of turns, all told from the same depth.
+    assertTrue(depths[2] > 300);
+    assertEquals(depths[0], depths[1]);
+  }
+
+  /**
+   * The view is shown each move by what it changed, instead of being redrawn after it.
+   */
+  @Test
+  public void testViewShownMoves() {
+    List<String> shown = new ArrayList<>();
+    ReversiView view = new ReversiView() {
+      @Override
+      public void render() {
+        shown.add("render");
+      }
+
+      @Override
+      public void update() {
+        shown.add("update");
+      }
+
+      @Override
+      public void update(MoveResult result) {
+        shown.add(result.getPlaced() + " flipping " + result.getFlipCount());
+      }
+
+      @Override
+      public void invalidMove() {
+        shown.add("invalid");
+      }
+
+      @Override
+      public void notYourTurn() {
+        shown.add("not your turn");
+      }
+
+      @Override
+      public void addListener(PlayerActions s) {
+        // nobody clicks.
+      }
+    };
+    Controller controller = new ReversiController(model, new HumanPlayer(true), view);
+    model.startGame();
+    Coordinate move = model.getLegalMoves().get(0);
+    controller.requestMove(move);
+    controller.requestMove(move);
+    assertEquals(List.of("render", "update", move + " flipping 1", "not your turn", "update"),
+            shown);
+  }
+
+  /**
+   * Robots that think in the background hand their moves to the game loop, and play what they
+   * have when their deadline comes.
+   */
+  @Test
+  public void testBackgroundRobots() throws InterruptedException, ExecutionException {
+    ExecutorService thinkers = Executors.newFixedThreadPool(2);
+    ExecutorService loop = Executors.newSingleThreadExecutor();
+    List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    PlayerActions spy = new PlayerActions() {
+      @Override
+      public void requestMove(Coordinate coord) {
+        requests.add(Thread.currentThread().getName() + " " + model.isLegal(coord));
+      }
+
+      @Override
+      public void requestPass() {
+        requests.add("pass");
+      }
+    };
+
+    // a search with all the time in the world is stopped at the deadline, and still moves.
+    MachinePlayer searcher = new MachinePlayer(true, new Infallible(
+            new Negamax(Integer.MAX_VALUE, 1_000_000)), model, thinkers, loop, 200);
+    searcher.addListener(spy);
+    String loopThread = loop.submit(() -> Thread.currentThread().getName()).get();
+    long start = System.nanoTime();
+    searcher.yourTurn();
+    while (requests.isEmpty() && System.nanoTime() - start < 5_000_000_000L) {
+      Thread.sleep(10);
+    }
+    assertEquals(List.of(loopThread + " true"), requests);
+
+    // a strategy that won't stop is answered for, with the move that flips the most.
+    AtomicBoolean release = new AtomicBoolean();
+    MachinePlayer stubborn = new MachinePlayer(true, m -> {
+      while (!release.get()) {
+        Thread.onSpinWait();
+      }
+      return m.getLegalMoves().get(0);
+    }, model, thinkers, loop, 50);
+    List<Coordinate> moves = Collections.synchronizedList(new ArrayList<>());
+    stubborn.addListener(new PlayerActions() {
+      @Override
+      public void requestMove(Coordinate coord) {
+        moves.add(coord);
+      }
+
+      @Override
+      public void requestPass() {
+        // never passes with moves on the board.
+      }
+    });
+    stubborn.yourTurn();
+    Thread.sleep(500);
+    release.set(true);
+    Thread.sleep(100);
+    assertEquals(List.of(new MaximizeFlips().chooseMove(model).get()), moves);
+
+    // two robots play a whole game through their controllers on the loop.
+    for (boolean black : new boolean[] {true, false}) {
+      new ReversiController(model, new MachinePlayer(black,
+              new Infallible(new MaximizeFlips()), model, thinkers, loop, 1000),
+              new ReversiTextualView(model, Writer.nullWriter()));
+    }
+    loop.execute(model::startGame);
+    start = System.nanoTime();
+    while (!loop.submit(model::isGameOver).get() && System.nanoTime() - start < 30_000_000_000L) {
+      Thread.sleep(10);
+    }
+    assertTrue(model.isGameOver());
+    thinkers.shutdownNow();
+    loop.shutdown();
+    assertTrue(loop.awaitTermination(1, TimeUnit.SECONDS));
+  }
+
+  /**
+   * A robot that ponders works out its answers during the opponent's turn, on its own board,
+   * and plays the one for the reply that was made without thinking again.
+   */
+  @Test
+  public void testPondering() throws InterruptedException, ExecutionException {
+    ExecutorService thinkers = Executors.newSingleThreadExecutor();
+    ExecutorService loop = Executors.newSingleThreadExecutor();
+    AtomicInteger searches = new AtomicInteger();
+    List<Object> boards = Collections.synchronizedList(new ArrayList<>());
+    MachinePlayer white = MachinePlayer.pondering(false, m -> {
+      searches.incrementAndGet();
+      boards.add(m);
+      return new MaximizeFlips().chooseMove(m).get();
+    }, model, thinkers, loop, 1000, Integer.MAX_VALUE);
+    List<Coordinate> moves = Collections.synchronizedList(new ArrayList<>());
+    white.addListener(new PlayerActions() {
+      @Override
+      public void requestMove(Coordinate coord) {
+        moves.add(coord);
+      }
+
+      @Override
+      public void requestPass() {
+        // never passes with moves on the board.
+      }
+    });
+
+    loop.submit(model::startGame).get();
+    long hash = model.getPositionHash();
+    List<Coordinate> replies = model.getLegalMoves();
+    long start = System.nanoTime();
+    while (searches.get() < replies.size() && System.nanoTime() - start < 5_000_000_000L) {
+      Thread.sleep(10);
+    }
+    // every reply was pondered, on a copy, leaving the game alone.
+    assertEquals(replies.size(), searches.get());
+    assertFalse(boards.contains(model));
+    assertEquals(hash, model.getPositionHash());
+
+    loop.submit(() -> {
+      model.move(replies.get(replies.size() - 1));
+      white.yourTurn();
+    }).get();
+    loop.submit(() -> { }).get();
+    assertEquals(List.of(new MaximizeFlips().chooseMove(model).get()), moves);
+    assertEquals(replies.size(), searches.get());
+    thinkers.shutdownNow();
+    loop.shutdownNow();
+  }
+
+  /**
+   * The session manager runs games to the end on its shards, and makes callers wait once it's
+   * full.
+   */
+  @Test
+  public void testSessionManager() throws Exception {
+    GameSessionManager manager = new GameSessionManager(2, 2, 4, 1_000_000);
+    GameSessionManager.Seat robot = (m, black, loop, thinker) ->
+        new MachinePlayer(black, new Infallible(new MaximizeFlips()), m, thinker, loop, 1000);
+    List<GameSessionManager.Session> sessions = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      sessions.add(manager.open(new HexagonalReversiModel(4), robot, robot, 0, 10_000));
+      assertTrue(manager.getSessionCount() <= 4);
+    }
+    for (GameSessionManager.Session session : sessions) {
+      assertEquals(session, session.getEnd().get(10, TimeUnit.SECONDS));
+      assertTrue(session.getBlackScore() + session.getWhiteScore() > 0);
+    }
+    assertEquals(0, manager.getSessionCount());
+    assertEquals(0, manager.getUsedBytes());
+
+    // closing a game stops its robots thinking about it.
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+    GameSessionManager.Seat slow = (m, black, loop, thinker) ->
+        new MachinePlayer(black, board -> {
+          started.countDown();
+          try {
+            Thread.sleep(60_000);
+          } catch (InterruptedException e) {
+            interrupted.countDown();
+          }
+          return new MaximizeFlips().chooseMove(board).get();
+        }, m, thinker, loop, 60_000);
+    GameSessionManager.Session thinking =
+        manager.open(new HexagonalReversiModel(4), slow, slow, 0, 0);
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    thinking.close();
+    assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    assertEquals(0, manager.getSessionCount());
+
+    // a robot that makes an invalid move isn't asked again, so its game ends.
+    GameSessionManager.Seat cheat = (m, black, loop, thinker) -> new MachinePlayer(black,
+        board -> {
+          int cell = 0;
+          while (!board.hasPiece(cell)) {
+            cell++;
+          }
+          return board.getCoordinate(cell);
+        }, m);
+    GameSessionManager.Session cheating =
+        manager.open(new HexagonalReversiModel(4), cheat, cheat, 0, 0);
+    ExecutionException failed = assertThrows(ExecutionException.class,
+        () -> cheating.getEnd().get(10, TimeUnit.SECONDS));
+    assertTrue(failed.getCause() instanceof IllegalStateException);
+    assertEquals(0, manager.getSessionCount());
+
+    // people who never move keep their games going until they're closed.
+    GameSessionManager.Seat person = (m, black, loop, thinker) -> new HumanPlayer(black);
+    List<GameSessionManager.Session> stuck = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      stuck.add(manager.open(new HexagonalReversiModel(4), person, person, 0, 0));
+    }
+    long bytes = GameSessionManager.estimateBytes(new HexagonalReversiModel(4));
+    assertEquals(4 * bytes, manager.getUsedBytes());
+    assertThrows(IllegalStateException.class, () ->
+        manager.open(new HexagonalReversiModel(4), person, person, 0, 50));
+    stuck.get(0).close();
+    assertTrue(stuck.get(0).getEnd().isCompletedExceptionally());
+    manager.open(new HexagonalReversiModel(4), person, person, 0, 0);
+    // or their players hold more memory than is left.
+    assertThrows(IllegalArgumentException.class, () ->
+        manager.open(new HexagonalReversiModel(4), person, person, 1_000_000, 0));
+    manager.shutdown();
+    assertEquals(0, manager.getSessionCount());
+  }
+
+  /**
+   * The clock only runs on a player's turn, gives back the increment after a move, and a player
+   * who moves after their time is up forfeits. Time comes from the test, not the wall clock.
+   */
+  @Test
+  public void testChessClock() throws Exception {
+    AtomicLong now = new AtomicLong();
+    ChessClock clock = ChessClock.withIncrement(1000, 100, now::get);
+    assertEquals(1000, clock.getRemainingMillis(true));
+    clock.switchTo(true);
+    now.addAndGet(50_000_000L);
+    clock.switchTo(false);
+    assertEquals(1050, clock.getRemainingMillis(true));
+    now.addAndGet(50_000_000L);
+    assertEquals(1050, clock.getRemainingMillis(true));
+    assertEquals(950, clock.getRemainingMillis(false));
+    // an even share of what's left over the moves still to come, plus the increment.
+    long budget = clock.getMoveBudget(model);
+    assertTrue(budget > 100 && budget < 200);
+    assertThrows(IllegalArgumentException.class, () -> ChessClock.perMove(0));
+
+    // searches budget themselves from the clock.
+    ChessClock fast = ChessClock.withIncrement(400, 0);
+    fast.switchTo(true);
+    for (FallibleStrat strat : List.of(new Negamax(fast, new TranspositionTable(1), 1, null),
+            new MonteCarlo(fast, 1))) {
+      long start = System.nanoTime();
+      assertTrue(strat.chooseMove(model).isPresent());
+      assertTrue(System.nanoTime() - start < 300_000_000L);
+    }
+
+    // a robot on the clock is interrupted when the clock says, not at its own deadline.
+    ChessClock robotClock = ChessClock.perMove(100);
+    robotClock.switchTo(true);
+    CountDownLatch interrupted = new CountDownLatch(1);
+    ExecutorService thinker = Executors.newSingleThreadExecutor();
+    MachinePlayer slow = new MachinePlayer(true, board -> {
+      try {
+        Thread.sleep(60_000);
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+      return new MaximizeFlips().chooseMove(board).get();
+    }, model, thinker, Runnable::run, 60_000, robotClock);
+    slow.yourTurn();
+    assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    thinker.shutdownNow();
+
+    now.set(0);
+    ChessClock perMove = ChessClock.perMove(50, now::get);
+    ExecutorService gameLoop = Executors.newSingleThreadExecutor();
+    ReversiController blackSide = new ReversiController(model, new HumanPlayer(true),
+            new ReversiTextualView(model, Writer.nullWriter()), perMove, gameLoop);
+    ReversiController whiteSide = new ReversiController(model, new HumanPlayer(false),
+            new ReversiTextualView(model, Writer.nullWriter()), perMove, gameLoop);
+    // told after the controllers, which have handed the flag to the loop by then.
+    CountDownLatch flagged = new CountDownLatch(1);
+    perMove.addListener(black -> {
+      if (!black) {
+        flagged.countDown();
+      }
+    });
+    model.startGame();
+    blackSide.requestMove(model.getLegalMoves().get(0));
+    assertFalse(model.isBlackTurn());
+    long hash = model.getPositionHash();
+    Coordinate reply = model.getLegalMoves().get(0);
+    now.addAndGet(100_000_000L);
+    // the clock notices by itself, without white ever answering.
+    assertTrue(flagged.await(10, TimeUnit.SECONDS));
+    gameLoop.submit(() -> { }).get(10, TimeUnit.SECONDS);
+    // the game ends on the model, so every listener finds it over.
+    assertTrue(model.isGameOver());
+    whiteSide.requestMove(reply);
+    assertEquals(hash, model.getPositionHash());
+    assertTrue(perMove.hasFlagged(false));
+    assertFalse(perMove.hasFlagged(true));
+    assertEquals(0, perMove.getRemainingMillis(false));
+    // the game's over, so nobody moves again.
+    whiteSide.requestPass();
+    assertEquals(hash, model.getPositionHash());
+    gameLoop.shutdown();
+
+    // a timed session ends when someone runs out of time, even if they never move.
+    GameSessionManager manager = new GameSessionManager(1, 1, 1, 1_000_000);
+    GameSessionManager.Seat person = (m, black, loop, thinkers) -> new HumanPlayer(black);
+    now.set(0);
+    GameSessionManager.Session session = manager.open(new HexagonalReversiModel(4), person,
+            person, 0, 0, ChessClock.perMove(50, now::get));
+    CountDownLatch started = new CountDownLatch(1);
+    session.execute(started::countDown);
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    now.addAndGet(100_000_000L);
+    assertEquals(session, session.getEnd().get(10, TimeUnit.SECONDS));
+    assertTrue(session.hasFlagged(true));
+    assertFalse(session.hasFlagged(false));
+    assertEquals(0, manager.getSessionCount());
+    manager.shutdown();
+  }
 }
@@ -3,11 +3,17 @@ package cs3500.reversi;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+
+import cs3500.reversi.controller.ModelStatus;
 import cs3500.reversi.model.Coordinate;
 import cs3500.reversi.model.HexagonalReversiModel;
+import cs3500.reversi.model.MockModel;
+import cs3500.reversi.model.MoveResult;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
@@ -152,15 +158,183 @@ public class ReversiModelInterfaceTests {
     // the score is now -2, meaning that white has two more tiles than black.
     assertEquals(3, model.getBlackScore());
     assertEquals(-2, model.getBlackScore() - model.getWhiteScore());
+    // 37 tiles on a board of side length 4.
+    assertEquals(29, model.getEmptyCount());
+    model.undo();
+    assertEquals(5, model.getBlackScore());
+    assertEquals(2, model.getWhiteScore());
+    assertEquals(30, model.getEmptyCount());
   }
 
   @Test
   public void testIllegalMove() {
     assertThrows(IllegalArgumentException.class, () -> model.move(new Coordinate(-1, -1)));
+    // isLegal never throws, no matter why the move is illegal.
+    assertFalse(model.isLegal(new Coordinate(-1, -1)));
+    assertFalse(model.isLegal(new Coordinate(0, 0)));
+    assertFalse(model.isLegal(new Coordinate(3, 2)));
+    assertFalse(model.isLegal(new Coordinate(3, 3)));
+    assertThrows(IllegalStateException.class, () -> model.move(new Coordinate(3, 2)));
+    assertThrows(IllegalStateException.class, () -> model.move(new Coordinate(3, 3)));
   }
 
   @Test
   public void testInvalidSize() {
     assertThrows(IllegalArgumentException.class, () -> new HexagonalReversiModel(1));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testLargeBoardBounds() {
+    HexagonalReversiModel big = new HexagonalReversiModel(11);
+    assertEquals(21, big.getBoardWidth());
+    // the cut off corners of the coordinate space aren't tiles.
+    assertFalse(big.isInBounds(new Coordinate(9, 0)));
+    assertTrue(big.isInBounds(new Coordinate(10, 0)));
+    assertTrue(big.isInBounds(new Coordinate(20, 10)));
+    assertFalse(big.isInBounds(new Coordinate(20, 11)));
+    assertFalse(big.isInBounds(new Coordinate(21, 0)));
+    assertThrows(IllegalArgumentException.class, () -> big.hasPiece(new Coordinate(0, 0)));
+    // 3 of each color to start, no matter the size.
+    assertEquals(3, big.getBlackScore());
+    assertEquals(3, big.getWhiteScore());
+    big.move(new Coordinate(9, 9));
+    HexagonalReversiModel copy = new HexagonalReversiModel(big);
+    assertTrue(copy.isTileBlack(new Coordinate(9, 10)));
+    assertEquals(big.getBlackScore(), copy.getBlackScore());
+    assertEquals(big.isBlackTurn(), copy.isBlackTurn());
+  }
+
+  @Test
+  public void testGetLegalMoves() {
+    // the six tiles that are one away from the starting discs, topmost-leftmost first.
+    assertEquals(Arrays.asList(
+            new Coordinate(4, 1),
+            new Coordinate(2, 2),
+            new Coordinate(5, 2),
+            new Coordinate(1, 4),
+            new Coordinate(4, 4),
+            new Coordinate(2, 5)), model.getLegalMoves());
+    model.move(new Coordinate(2, 2));
+    for (Coordinate c : model.getLegalMoves()) {
+      assertTrue(model.isLegal(c));
+    }
+    assertFalse(model.getLegalMoves().contains(new Coordinate(2, 2)));
+    assertThrows(UnsupportedOperationException.class,
+        () -> model.getLegalMoves().add(new Coordinate(0, 0)));
+    model.pass();
+    model.pass();
+    assertTrue(model.getLegalMoves().isEmpty());
+  }
+
+  @Test
+  public void testUndo() {
+    assertThrows(IllegalStateException.class, () -> model.undo());
+    model.move(new Coordinate(2, 2));
+    assertEquals(5, model.getBlackScore());
+    model.undo();
+    // back to the starting position, black to move.
+    assertFalse(model.hasPiece(new Coordinate(2, 2)));
+    assertFalse(model.isTileBlack(new Coordinate(2, 3)));
+    assertEquals(3, model.getBlackScore());
+    assertEquals(3, model.getWhiteScore());
+    assertTrue(model.isBlackTurn());
+    assertTrue(model.isLegal(new Coordinate(2, 2)));
+    // passes can be undone too, including the one that ended the game.
+    model.pass();
+    model.pass();
+    assertTrue(model.isGameOver());
+    model.undo();
+    assertFalse(model.isGameOver());
+    assertFalse(model.isBlackTurn());
+    model.undo();
+    assertTrue(model.isBlackTurn());
+    assertThrows(IllegalStateException.class, () -> model.undo());
+  }
+
+  @Test
+  public void testUndoIsQuiet() {
+    int[] turns = {0};
+    model.addListener(new ModelStatus() {
+      @Override
+      public void notifyTurn(boolean isBlackTurn) {
+        turns[0]++;
+      }
+
+      @Override
+      public void notifyMove(MoveResult result) {
+        // only counting turns.
+      }
+    });
+    model.move(new Coordinate(2, 2));
+    assertEquals(1, turns[0]);
+    // a robot told it's their turn again would move right away.
+    model.undo();
+    model.pass();
+    model.undo();
+    assertEquals(2, turns[0]);
+    assertTrue(model.isBlackTurn());
+  }
+
+  @Test
+  public void testPotentialScore() {
+    // doesn't change the board.
+    assertEquals(1, model.potentialScore(new Coordinate(2, 2)));
+    assertFalse(model.hasPiece(new Coordinate(2, 2)));
+    assertEquals(3, model.getBlackScore());
+    assertThrows(IllegalStateException.class, () -> model.potentialScore(new Coordinate(3, 3)));
+  }
+
+  @Test
+  public void testPlayMove() {
+    MoveResult result = model.playMove(new Coordinate(2, 2));
+    assertEquals(new Coordinate(2, 2), result.getPlaced());
+    assertTrue(result.isBlack());
+    assertEquals(1, result.getFlipCount());
+    assertEquals(new Coordinate(2, 3), result.getFlipped(0));
+    assertEquals(5, result.getBlackScore());
+    assertEquals(2, result.getWhiteScore());
+    // same as making the move normally.
+    assertTrue(model.isTileBlack(new Coordinate(2, 3)));
+    assertFalse(model.isBlackTurn());
+    assertThrows(IllegalStateException.class, () -> model.playMove(new Coordinate(3, 3)));
+  }
+
+  @Test
+  public void testCellIndices() {
+    // 37 tiles on a board of side length 4, numbered topmost-leftmost.
+    assertEquals(37, model.getCellCount());
+    assertEquals(new Coordinate(3, 0), model.getCoordinate(0));
+    assertEquals(new Coordinate(3, 6), model.getCoordinate(36));
+    assertEquals(-1, model.getCellIndex(new Coordinate(0, 0)));
+    for (int cell = 0; cell < model.getCellCount(); cell++) {
+      Coordinate coord = model.getCoordinate(cell);
+      assertEquals(cell, model.getCellIndex(coord));
+      // the same coordinate object every time.
+      assertTrue(coord == model.getCoordinate(cell));
+      assertEquals(model.hasPiece(coord), model.hasPiece(cell));
+      assertEquals(model.isLegal(coord), model.isLegal(cell));
+      if (model.hasPiece(cell)) {
+        assertEquals(model.isTileBlack(coord), model.isTileBlack(cell));
+      }
+    }
+    assertThrows(IllegalArgumentException.class, () -> model.hasPiece(37));
+    assertThrows(IllegalArgumentException.class, () -> model.getCoordinate(-1));
+  }
+
+  @Test
+  public void testPositionHash() {
+    long start = model.getPositionHash();
+    assertEquals(start, new HexagonalReversiModel(4).getPositionHash());
+    model.move(new Coordinate(2, 2));
+    long afterMove = model.getPositionHash();
+    assertNotEquals(start, afterMove);
+    // copying through another model rehashes from scratch, and should agree.
+    assertEquals(afterMove, new HexagonalReversiModel(new MockModel(model)).getPositionHash());
+    // passing changes whose turn it is, so it changes the position.
+    model.pass();
+    assertNotEquals(afterMove, model.getPositionHash());
+    model.undo();
+    model.undo();
+    assertEquals(start, model.getPositionHash());
+  }
+}
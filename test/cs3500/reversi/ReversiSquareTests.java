@@ -4,6 +4,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.HexagonalReversiModel;
 import cs3500.reversi.model.ObservableReversiModel;
 import cs3500.reversi.model.SquareReversiModel;
 import cs3500.reversi.strategy.InFallibleStrat;
@@ -132,4 +133,66 @@ public class ReversiSquareTests {
       assertFalse(m.isInBounds(coord));
     }
   }
+
+  @Test
+  public void testEightByEight() {
+    // 8x8 boards generate their moves with bitboards instead of walking the board.
+    SquareReversiModel m = new SquareReversiModel(8);
+    int legal = 0;
+    for (int r = 0; r < 8; r++) {
+      for (int c = 0; c < 8; c++) {
+        if (m.isLegal(new Coordinate(c, r))) {
+          legal += 1;
+        }
+      }
+    }
+    assertEquals(4, legal);
+    assertTrue(m.isLegal(new Coordinate(4, 2)));
+    assertTrue(m.isLegal(new Coordinate(5, 3)));
+    assertTrue(m.isLegal(new Coordinate(2, 4)));
+    assertTrue(m.isLegal(new Coordinate(3, 5)));
+    assertFalse(m.isLegal(new Coordinate(8, 0)));
+    assertThrows(IllegalStateException.class, () -> m.move(new Coordinate(0, 0)));
+    assertThrows(IllegalStateException.class, () -> m.move(new Coordinate(3, 3)));
+    assertThrows(IllegalArgumentException.class, () -> m.move(new Coordinate(-1, 0)));
+
+    m.move(new Coordinate(5, 3));
+    assertTrue(m.isTileBlack(new Coordinate(4, 3)));
+    assertEquals(4, m.getBlackScore());
+    assertEquals(1, m.getWhiteScore());
+
+    // the copy should move exactly like the original.
+    SquareReversiModel copy = new SquareReversiModel(m);
+    copy.move(new Coordinate(5, 4));
+    m.move(new Coordinate(5, 4));
+    assertEquals(m.getBlackScore(), copy.getBlackScore());
+    assertEquals(m.getWhiteScore(), copy.getWhiteScore());
+    assertFalse(m.isTileBlack(new Coordinate(4, 4)));
+  }
+
+  @Test
+  public void testPerft() {
+    // the well known counts for the standard board, passes included.
+    long[] expected = {1, 4, 12, 56, 244, 1396, 8200, 55092};
+    SquareReversiModel m = new SquareReversiModel(8);
+    for (int depth = 0; depth < expected.length; depth++) {
+      assertEquals(expected[depth], Perft.perft(m, depth));
+    }
+    // counting leaves the board as it was.
+    assertEquals(4, m.getLegalMoves().size());
+    assertEquals(60, m.getEmptyCount());
+    assertTrue(m.isBlackTurn());
+
+    // splitting the first moves between threads counts the same.
+    HexagonalReversiModel hex = new HexagonalReversiModel(4);
+    long[] serial = Perft.divide(hex, 5, 1);
+    long[] parallel = Perft.divide(hex, 5, 3);
+    long total = 0;
+    for (int i = 0; i < serial.length; i++) {
+      assertEquals(serial[i], parallel[i]);
+      total += serial[i];
+    }
+    assertEquals(Perft.perft(hex, 5), total);
+    assertThrows(IllegalArgumentException.class, () -> Perft.divide(hex, 0, 1));
+  }
 }
@@ -3,23 +3,46 @@ package cs3500.reversi;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
 import cs3500.reversi.model.Coordinate;
 import cs3500.reversi.model.HexagonalReversiModel;
 import cs3500.reversi.model.MockModel;
+import cs3500.reversi.model.MoveResult;
 import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.SquareReversiModel;
 import cs3500.reversi.strategy.AvoidCornerNeighbors;
+import cs3500.reversi.strategy.BookBuilder;
 import cs3500.reversi.strategy.DynamicStrat;
+import cs3500.reversi.strategy.EndgameSolver;
 import cs3500.reversi.strategy.InFallibleStrat;
 import cs3500.reversi.strategy.Infallible;
+import cs3500.reversi.strategy.MatchResult;
 import cs3500.reversi.strategy.MaximizeFlips;
+import cs3500.reversi.strategy.MonteCarlo;
+import cs3500.reversi.strategy.Negamax;
+import cs3500.reversi.strategy.OpeningBook;
+import cs3500.reversi.strategy.PatternEvaluator;
+import cs3500.reversi.strategy.PatternTrainer;
+import cs3500.reversi.strategy.PatternWeights;
 import cs3500.reversi.strategy.PlayCorners;
+import cs3500.reversi.strategy.Tournament;
+import cs3500.reversi.strategy.TranspositionTable;
 import cs3500.reversi.strategy.TryN;
+import cs3500.reversi.strategy.TryTwo;
 import cs3500.reversi.view.ReversiGuiView;
 import cs3500.reversi.view.ReversiTextualView;
 import cs3500.reversi.view.ReversiView;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -152,6 +175,409 @@ public class ReversiStrategyTests {
     strategy.chooseMove(mock);
     // console spam if you uncomment
     // System.out.println(mock.report());
-    Assert.assertEquals(362, mock.report().split("\n").length);
+    // one request for the legal moves, then one potentialScore per legal move.
+    Assert.assertEquals(7, mock.report().split("\n").length);
+  }
+
+  @Test
+  public void testNegamaxPlaysLegalMoves() {
+    Negamax search = new Negamax(4, 10_000);
+    for (ReversiModel model : new ReversiModel[] {
+        new HexagonalReversiModel(6), new SquareReversiModel(8), new SquareReversiModel(6)}) {
+      long hash = model.getPositionHash();
+      Coordinate move = new Infallible(search).chooseMove(model);
+      assertTrue(model.isLegal(move));
+      // the search works on a copy, so the real board is untouched.
+      assertEquals(hash, model.getPositionHash());
+      assertEquals(4, search.getLastDepth());
+      assertTrue(search.getLastNodes() > 0);
+      assertTrue(search.getLastNodesPerSecond() > 0);
+      assertEquals(model.getLegalMoves().size(), search.rankMoves(model).get().size());
+    }
+  }
+
+  @Test
+  public void testNegamaxBeatsSimple() {
+    for (ReversiModel model : new ReversiModel[] {
+        new HexagonalReversiModel(4), new SquareReversiModel(6)}) {
+      InFallibleStrat expert = new Infallible(new Negamax(3, 10_000));
+      InFallibleStrat simple = new Infallible(new MaximizeFlips());
+      while (!model.isGameOver()) {
+        try {
+          model.move((model.isBlackTurn() ? expert : simple).chooseMove(model));
+        } catch (IllegalArgumentException e) {
+          model.pass();
+        }
+      }
+      assertTrue(model.getBlackScore() > model.getWhiteScore());
+    }
+  }
+
+  @Test
+  public void testNegamaxNoMoves() {
+    ReversiModel model = new SquareReversiModel(4);
+    model.pass();
+    model.pass();
+    assertFalse(new Negamax(1000).chooseMove(model).isPresent());
+  }
+
+  @Test
+  public void testNegamaxBadArgs() {
+    assertThrows(IllegalArgumentException.class, () -> new Negamax(0));
+    assertThrows(IllegalArgumentException.class, () -> new Negamax(0, 1000));
+  }
+
+  @Test
+  public void testTranspositionTable() {
+    TranspositionTable table = new TranspositionTable(1);
+    // 1 MB of 16 byte entries.
+    assertEquals(65536, table.capacity());
+    assertEquals(TranspositionTable.MISS, table.probe(42));
+    table.store(42, 5, TranspositionTable.LOWER, -1234, 17);
+    long entry = table.probe(42);
+    assertEquals(5, TranspositionTable.depth(entry));
+    assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+    assertEquals(-1234, TranspositionTable.score(entry));
+    assertEquals(17, TranspositionTable.move(entry));
+    // same slot, different position: the deeper entry from this search is kept.
+    long other = 42 + table.capacity();
+    table.store(other, 3, TranspositionTable.EXACT, 0, -1);
+    assertEquals(TranspositionTable.MISS, table.probe(other));
+    assertEquals(5, TranspositionTable.depth(table.probe(42)));
+    // ...until a new search starts.
+    table.newSearch();
+    table.store(other, 3, TranspositionTable.EXACT, 0, -1);
+    assertEquals(TranspositionTable.MISS, table.probe(42));
+    assertEquals(-1, TranspositionTable.move(table.probe(other)));
+    // storing the same position without a move keeps the old best move.
+    table.store(other, 4, TranspositionTable.UPPER, 9, 3);
+    table.store(other, 4, TranspositionTable.UPPER, 9, -1);
+    assertEquals(3, TranspositionTable.move(table.probe(other)));
+    table.clear();
+    assertEquals(TranspositionTable.MISS, table.probe(other));
+    assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    // one megabyte more than the most 2^29 entries can hold, where twice the entries no longer
+    // fits in an int.
+    assertThrows(IllegalArgumentException.class,
+        () -> new TranspositionTable(TranspositionTable.MAX_MEGABYTES + 1));
+    assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(16384));
+    assertEquals(1 << 29, (long) TranspositionTable.MAX_MEGABYTES * 1024 * 1024 / 16);
+  }
+
+  @Test
+  public void testNegamaxReusesTable() {
+    ReversiModel model = new SquareReversiModel(8);
+    Negamax search = new Negamax(5, 10_000, new TranspositionTable(4));
+    Coordinate first = search.chooseMove(model).get();
+    long nodes = search.getLastNodes();
+    // the second search of the same position finds most of it in the table.
+    assertEquals(first, search.chooseMove(model).get());
+    assertTrue(search.getLastNodes() < nodes);
+  }
+
+  @Test
+  public void testNegamaxThreads() {
+    ReversiModel model = new HexagonalReversiModel(6);
+    model.move(model.getLegalMoves().get(0));
+    // one thread always picks the same move.
+    assertEquals(new Negamax(4, 10_000).rankMoves(model).get(),
+            new Negamax(4, 10_000, new TranspositionTable(1), 1).rankMoves(model).get());
+    Negamax parallel = new Negamax(6, 10_000, new TranspositionTable(4), 4);
+    for (int i = 0; i < 2; i++) {
+      // the helper threads are reused between moves.
+      assertTrue(model.isLegal(parallel.chooseMove(model).get()));
+      assertEquals(6, parallel.getLastDepth());
+      model.move(parallel.chooseMove(model).get());
+    }
+    // every search shares the same helpers, however many strategies there are.
+    for (int i = 0; i < 8; i++) {
+      new Negamax(2, 10_000, new TranspositionTable(1), 4).chooseMove(model);
+    }
+    assertTrue(Thread.getAllStackTraces().keySet().stream()
+        .filter(thread -> thread.getName().equals("search-helper")).count()
+        <= Runtime.getRuntime().availableProcessors());
+    assertThrows(IllegalArgumentException.class,
+        () -> new Negamax(1, 1000, new TranspositionTable(1), 0));
+  }
+
+  @Test
+  public void testMaximizeFlipsLargeBoard() {
+    ReversiModel model = new SquareReversiModel(20);
+    Random random = new Random(3500);
+    // play randomly until there are enough moves to score them in parallel.
+    while (model.getLegalMoves().size() < 40) {
+      List<Coordinate> legal = model.getLegalMoves();
+      model.move(legal.get(random.nextInt(legal.size())));
+    }
+    List<Coordinate> expected = new ArrayList<>(model.getLegalMoves());
+    expected.sort(Comparator.comparing((Coordinate c) -> -model.potentialScore(c))
+            .thenComparing(c -> c.r).thenComparing(c -> c.c));
+    for (int i = 0; i < 10; i++) {
+      assertEquals(expected, new MaximizeFlips().rankMoves(model).get());
+    }
+    // corner neighbors are skipped from the same ranking.
+    assertTrue(expected.contains(new AvoidCornerNeighbors().chooseMove(model).get()));
+  }
+
+  @Test
+  public void testMonteCarlo() {
+    for (ReversiModel model : new ReversiModel[] {
+        new HexagonalReversiModel(6), new SquareReversiModel(8)}) {
+      long hash = model.getPositionHash();
+      MonteCarlo search = new MonteCarlo(10_000, 500, 1);
+      Coordinate move = search.chooseMove(model).get();
+      assertTrue(model.isLegal(move));
+      assertEquals(hash, model.getPositionHash());
+      assertEquals(500, search.getLastPlayouts());
+      assertTrue(search.getLastPlayoutsPerSecond() > 0);
+      // one thread with a playout limit always picks the same move.
+      assertEquals(move, new MonteCarlo(10_000, 500, 1).chooseMove(model).get());
+      MonteCarlo parallel = new MonteCarlo(10_000, 2000, 4);
+      assertTrue(model.isLegal(parallel.chooseMove(model).get()));
+      assertEquals(2000, parallel.getLastPlayouts());
+    }
+    // like negamax, every search shares the same helpers.
+    for (int i = 0; i < 8; i++) {
+      new MonteCarlo(10_000, 100, 4).chooseMove(new HexagonalReversiModel(4));
+    }
+    assertTrue(Thread.getAllStackTraces().keySet().stream()
+        .filter(thread -> thread.getName().equals("search-helper")).count()
+        <= Runtime.getRuntime().availableProcessors());
+    ReversiModel over = new HexagonalReversiModel(3);
+    over.pass();
+    over.pass();
+    assertFalse(new MonteCarlo(1000).chooseMove(over).isPresent());
+    assertThrows(IllegalArgumentException.class, () -> new MonteCarlo(0));
+    assertThrows(IllegalArgumentException.class, () -> new MonteCarlo(1000, 0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new MonteCarlo(1000, 10, 0));
+  }
+
+  @Test
+  public void testMonteCarloBeatsSimple() {
+    ReversiModel model = new HexagonalReversiModel(4);
+    InFallibleStrat mcts = new Infallible(new MonteCarlo(10_000, 2000, 1));
+    InFallibleStrat simple = new Infallible(new MaximizeFlips());
+    while (!model.isGameOver()) {
+      try {
+        model.move((model.isBlackTurn() ? mcts : simple).chooseMove(model));
+      } catch (IllegalArgumentException e) {
+        model.pass();
+      }
+    }
+    assertTrue(model.getBlackScore() > model.getWhiteScore());
+  }
+
+  @Test
+  public void testEndgameSolver() {
+    ReversiModel model = new SquareReversiModel(6);
+    EndgameSolver solver = new EndgameSolver(10);
+    InFallibleStrat strategy = new Infallible(new TryTwo(solver, new MaximizeFlips()));
+    Random random = new Random(42);
+    while (!model.isGameOver()) {
+      if (model.getEmptyCount() > 10) {
+        // too early for the solver.
+        assertFalse(solver.chooseMove(model).isPresent());
+      }
+      if (model.getEmptyCount() == 10 && model.anyValidMoves()) {
+        int score = solver.solve(model);
+        assertTrue(solver.getLastNodes() > 0);
+        assertTrue(solver.getLastSolveMillis() >= 0);
+        // perfect play keeps the score the same all the way to the end.
+        model.move(solver.chooseMove(model).get());
+        assertEquals(score, solver.getLastScore());
+        assertEquals(-score, solver.solve(model));
+      }
+      List<Coordinate> legal = model.getLegalMoves();
+      if (legal.isEmpty()) {
+        model.pass();
+      } else if (model.getEmptyCount() > 10) {
+        model.move(legal.get(random.nextInt(legal.size())));
+      } else {
+        model.move(strategy.chooseMove(model));
+      }
+    }
+    assertTrue(model.getEmptyCount() < 10);
+    assertThrows(IllegalArgumentException.class, () -> new EndgameSolver(0));
+  }
+
+  @Test
+  public void testEndgameSolverInterrupted() {
+    ReversiModel model = new SquareReversiModel(8);
+    Random random = new Random(7);
+    while (model.getEmptyCount() > 24 || !model.anyValidMoves()) {
+      List<Coordinate> legal = model.getLegalMoves();
+      if (legal.isEmpty()) {
+        model.pass();
+      } else {
+        model.move(legal.get(random.nextInt(legal.size())));
+      }
+    }
+    // far too many empties to solve in time, so it stops soon after it's interrupted.
+    EndgameSolver solver = new EndgameSolver(24);
+    Thread.currentThread().interrupt();
+    try {
+      Coordinate move = solver.chooseMove(model).get();
+      assertTrue(model.isLegal(move));
+      assertTrue(solver.getLastNodes() < 2048);
+    } finally {
+      Thread.interrupted();
+    }
+  }
+
+  @Test
+  public void testOpeningBook() throws IOException {
+    Path file = Files.createTempFile("book", ".bin");
+    file.toFile().deleteOnExit();
+    ReversiModel model = new HexagonalReversiModel(4);
+    Coordinate good = model.getLegalMoves().get(0);
+    Coordinate bad = model.getLegalMoves().get(1);
+    BookBuilder builder = new BookBuilder();
+    builder.add(model.getPositionHash(), model.getCellIndex(good), 5);
+    builder.add(model.getPositionHash(), model.getCellIndex(bad), 1);
+    builder.add(model.getPositionHash(), model.getCellIndex(good), 2);
+    // an illegal move, like from another position with the same hash, is never played.
+    builder.add(model.getPositionHash(), 0, 100);
+    builder.write(file);
+
+    OpeningBook book = new OpeningBook(file);
+    assertEquals(3, book.size());
+    assertEquals(good, book.chooseMove(model).get());
+    // weighted picks play both moves, but the good one more.
+    OpeningBook weighted = new OpeningBook(file, new Random(7));
+    int goodCount = 0;
+    for (int i = 0; i < 800; i++) {
+      Coordinate move = weighted.chooseMove(model).get();
+      assertTrue(move.equals(good) || move.equals(bad));
+      goodCount += move.equals(good) ? 1 : 0;
+    }
+    assertTrue(goodCount > 600 && goodCount < 800);
+    // positions out of the book fall through to the next strategy.
+    model.move(good);
+    assertFalse(book.chooseMove(model).isPresent());
+    assertEquals(new MaximizeFlips().chooseMove(model).get(),
+            new TryTwo(book, new MaximizeFlips()).chooseMove(model).get());
+
+    // self-play grows the book, and what's there is kept.
+    BookBuilder grown = new BookBuilder(book);
+    grown.selfPlay(() -> new HexagonalReversiModel(4), 5, 4,
+            new MaximizeFlips(), new Random(1), 0.5);
+    assertTrue(grown.size() > 3);
+    grown.write(file);
+    OpeningBook bigger = new OpeningBook(file);
+    assertEquals(grown.size(), bigger.size());
+    assertTrue(bigger.chooseMove(new HexagonalReversiModel(4)).isPresent());
+
+    Files.write(file, new byte[] {1, 2, 3});
+    assertThrows(IllegalArgumentException.class, () -> new OpeningBook(file));
+  }
+
+  @Test
+  public void testPatternEvaluator() {
+    // corner regions, edges and diagonals.
+    assertEquals(10, new PatternWeights(new SquareReversiModel(8)).getPatternCount());
+    // corner regions, rims, and the long diagonals from each corner.
+    assertEquals(18, new PatternWeights(new HexagonalReversiModel(6)).getPatternCount());
+
+    ReversiModel model = new HexagonalReversiModel(6);
+    PatternTrainer trainer = new PatternTrainer(model);
+    trainer.selfPlay(() -> new HexagonalReversiModel(6), 4, new MaximizeFlips(),
+            new Random(5), 0.3);
+    PatternWeights weights = trainer.train(30, 0.5, 3);
+    PatternEvaluator incremental = weights.newEvaluator(model);
+    // the same, but reading the moves from the board's history like a search does.
+    PatternEvaluator fromHistory = weights.newEvaluator(model);
+    assertEquals(-1, model.getLastMoveCell());
+    List<MoveResult> moves = new ArrayList<>();
+    Random random = new Random(2);
+    for (int i = 0; i < 30 && model.anyValidMoves(); i++) {
+      List<Coordinate> legal = model.getLegalMoves();
+      moves.add(model.playMove(legal.get(random.nextInt(legal.size()))));
+      incremental.apply(moves.get(i));
+      fromHistory.applyLast(model);
+      assertEquals(moves.get(i).getPlacedCell(), model.getLastMoveCell());
+      // keeping up move by move gives the same score as reading the whole board.
+      assertEquals(weights.newEvaluator(model).evaluate(), incremental.evaluate());
+      assertEquals(incremental.evaluate(), fromHistory.evaluate());
+    }
+    for (int i = moves.size() - 1; i >= 0; i--) {
+      fromHistory.revertLast(model);
+      model.undo();
+      incremental.revert(moves.get(i));
+      assertEquals(incremental.evaluate(), fromHistory.evaluate());
+    }
+    assertEquals(weights.newEvaluator(model).evaluate(), incremental.evaluate());
+  }
+
+  @Test
+  public void testPatternTrainer() throws IOException {
+    ReversiModel model = new HexagonalReversiModel(4);
+    PatternTrainer trainer = new PatternTrainer(model);
+    trainer.selfPlay(() -> new HexagonalReversiModel(4), 20, new MaximizeFlips(),
+            new Random(9), 0.5);
+    assertTrue(trainer.size() > 20 * 10);
+    trainer.train(1, 0.5, 1);
+    double untrained = trainer.getLastError();
+    // more threads split the work but get the same weights.
+    PatternWeights weights = trainer.train(50, 0.5, 4);
+    assertTrue(trainer.getLastError() < untrained / 2);
+    PatternWeights single = trainer.train(50, 0.5, 1);
+    assertEquals(single.newEvaluator(model).evaluate(), weights.newEvaluator(model).evaluate());
+
+    Path file = Files.createTempFile("weights", ".bin");
+    file.toFile().deleteOnExit();
+    weights.save(file);
+    model.move(model.getLegalMoves().get(0));
+    assertEquals(weights.newEvaluator(model).evaluate(),
+            PatternWeights.load(file, model).newEvaluator(model).evaluate());
+    assertThrows(IllegalArgumentException.class,
+        () -> PatternWeights.load(file, new HexagonalReversiModel(5)));
+
+    Negamax search = new Negamax(3, 10_000, new TranspositionTable(1), 1, weights);
+    assertTrue(model.isLegal(search.chooseMove(model).get()));
+  }
+
+  @Test
+  public void testTournament() {
+    Tournament tournament = new Tournament();
+    tournament.addBoard("hex3", () -> new HexagonalReversiModel(3));
+    tournament.addBoard("square4", () -> new SquareReversiModel(4));
+    tournament.addEntrant("simple", () -> new Infallible(new MaximizeFlips()));
+    tournament.addEntrant("negamax", () -> new Infallible(new Negamax(4, 10_000)));
+    // always plays on the first tile, which is never empty for long.
+    tournament.addEntrant("cheat", (board, black) -> m -> m.getCoordinate(0));
+    assertThrows(IllegalArgumentException.class,
+        () -> tournament.addEntrant("simple", () -> new Infallible(new MaximizeFlips())));
+    assertThrows(IllegalArgumentException.class, () -> tournament.play(0, 2, 1, 2));
+
+    List<MatchResult> results = tournament.play(5, 2, 1, 2);
+    // every pair on every board, in the order they were added.
+    assertEquals(6, results.size());
+    assertEquals("simple", results.get(0).getFirst());
+    assertEquals("negamax", results.get(0).getSecond());
+    assertEquals("square4", results.get(1).getBoard());
+    for (MatchResult result : results) {
+      assertEquals(10, result.getGames());
+      assertEquals(result.getGames(),
+              result.getWins() + result.getLosses() + result.getDraws());
+      double[] interval = result.getEloInterval();
+      assertTrue(interval[0] <= result.getElo() && result.getElo() <= interval[1]);
+    }
+    MatchResult simpleVsNegamax = results.get(0).plus(results.get(1), "both");
+    assertEquals(20, simpleVsNegamax.getGames());
+    assertEquals(0, simpleVsNegamax.getForfeits());
+    assertTrue(simpleVsNegamax.getScore() < 0.5);
+    assertTrue(simpleVsNegamax.getElo() < 0);
+    // the cheat loses every game it doesn't pass through.
+    MatchResult vsCheat = results.get(2);
+    assertEquals("cheat", vsCheat.getSecond());
+    assertEquals(vsCheat.getForfeits(), vsCheat.getWins());
+    assertTrue(vsCheat.getWins() > 0);
+    assertThrows(IllegalArgumentException.class, () -> vsCheat.plus(results.get(5), "both"));
+
+    // the same seed plays the same games.
+    List<MatchResult> again = tournament.play(5, 2, 1, 1);
+    for (int i = 0; i < results.size(); i++) {
+      assertEquals(results.get(i).toString(), again.get(i).toString());
+    }
   }
 }
@@ -1,6 +1,7 @@
 package cs3500.reversi.controller;
 
 import cs3500.reversi.model.Coordinate;
+import cs3500.reversi.model.MoveResult;
 import cs3500.reversi.model.ReversiModel;
 import cs3500.reversi.view.ReversiView;
 
@@ -28,6 +29,12 @@ public class ControllerSpy implements Controller {
     sb.append("Model Notification: turn change, black to play: ").append(isBlackTurn).append("\n");
   }
 
+  @Override
+  public void notifyMove(MoveResult result) {
+    sb.append("Model Notification: move at ").append(result.getPlaced())
+            .append(", flipped ").append(result.getFlipCount()).append("\n");
+  }
+
   @Override
   public void requestMove(Coordinate coord) {
     sb.append("Player Notification, request move at ").append(coord).append("\n");
@@ -72,6 +72,100 @@ public class MockModel implements ReversiModel {
     return m.hasPiece(coordinate);
   }
 
+  /**
+   * Gives the number of tiles on the board.
+   *
+   * @return the number of tiles.
+   */
+  @Override
+  public int getCellCount() {
+    record.append("Checked cell count\n");
+    return m.getCellCount();
+  }
+
+  /**
+   * Gets the tile index of a coordinate.
+   *
+   * @param coordinate the coordinate
+   * @return the tile index, or -1 if the coordinate isn't on the board.
+   */
+  @Override
+  public int getCellIndex(Coordinate coordinate) {
+    record.append("Checked cell index ").append(coordinate).append("\n");
+    return m.getCellIndex(coordinate);
+  }
+
+  /**
+   * Gets the coordinate of a tile index.
+   *
+   * @param cell the tile index
+   * @return the coordinate of the tile.
+   */
+  @Override
+  public Coordinate getCoordinate(int cell) {
+    record.append("Checked coordinate of ").append(cell).append("\n");
+    return m.getCoordinate(cell);
+  }
+
+  /**
+   * Retrieves the color of the piece at a given tile.
+   *
+   * @param cell the tile index
+   * @return true iff there is a black piece there
+   */
+  @Override
+  public boolean isTileBlack(int cell) {
+    record.append("Checked isTileBlack ").append(cell).append("\n");
+    return m.isTileBlack(cell);
+  }
+
+  /**
+   * Checks if the tile has a piece on it.
+   *
+   * @param cell the tile index
+   * @return false if empty, true if there's a piece.
+   */
+  @Override
+  public boolean hasPiece(int cell) {
+    record.append("Checked hasPiece ").append(cell).append("\n");
+    return m.hasPiece(cell);
+  }
+
+  /**
+   * Gets the tile the last move was played on.
+   *
+   * @return the tile index, or -1 if the last turn was passed or nothing was played yet.
+   */
+  @Override
+  public int getLastMoveCell() {
+    record.append("Checked getLastMoveCell\n");
+    return m.getLastMoveCell();
+  }
+
+  /**
+   * Copies the tiles the last move flipped into an array.
+   *
+   * @param flips where to copy them
+   * @return how many were copied.
+   */
+  @Override
+  public int getLastFlips(int[] flips) {
+    record.append("Checked getLastFlips\n");
+    return m.getLastFlips(flips);
+  }
+
+  /**
+   * Checks if the current player would be able to play a move at the given tile.
+   *
+   * @param cell the tile index of the potential move.
+   * @return true iff the current player would be able to play their turn at the given tile.
+   */
+  @Override
+  public boolean isLegal(int cell) {
+    record.append("Checked isLegal ").append(cell).append("\n");
+    return m.isLegal(cell);
+  }
+
   /**
    * Gets the length, i.e. the vertical dimension, of the game board.
    *
@@ -106,7 +200,7 @@ public class MockModel implements ReversiModel {
   }
 
   /**
-   * Checks if the current player has any valid moves on the board (brute force).
+   * Checks if the current player has any valid moves on the board.
    *
    * @return true iff there is a valid move on the board.
    */
@@ -116,6 +210,17 @@ public class MockModel implements ReversiModel {
     return m.anyValidMoves();
   }
 
+  /**
+   * Gets every move the current player could legally make, in topmost-leftmost order.
+   *
+   * @return the legal moves, empty if there are none or the game is over.
+   */
+  @Override
+  public List<Coordinate> getLegalMoves() {
+    record.append("Got legal moves\n");
+    return m.getLegalMoves();
+  }
+
   /**
    * Gives white's score, in # of tiles on the board.
    *
@@ -127,6 +232,28 @@ public class MockModel implements ReversiModel {
     return m.getWhiteScore();
   }
 
+  /**
+   * Gives the number of empty tiles left on the board.
+   *
+   * @return a whole number, the tiles no one has played on yet.
+   */
+  @Override
+  public int getEmptyCount() {
+    record.append("Checked empty count\n");
+    return m.getEmptyCount();
+  }
+
+  /**
+   * Gets a 64-bit hash of the position.
+   *
+   * @return the hash of the position.
+   */
+  @Override
+  public long getPositionHash() {
+    record.append("Checked position hash\n");
+    return m.getPositionHash();
+  }
+
   /**
    * Hides the Player enum from the interface.
    *
@@ -172,6 +299,17 @@ public class MockModel implements ReversiModel {
     return m.potentialScore(coord);
   }
 
+  /**
+   * Creates a deep copy of the real model.
+   *
+   * @return the copy.
+   */
+  @Override
+  public ReversiModel copy() {
+    record.append("Copied\n");
+    return m.copy();
+  }
+
   /**
    * Returns the coordinates of the corners on this board.
    *
@@ -208,6 +346,18 @@ public class MockModel implements ReversiModel {
     m.move(coordinate);
   }
 
+  /**
+   * Attempts to place a piece at the given coordinate on the board, and reports what changed.
+   *
+   * @param coordinate The position of the new tile, if valid.
+   * @return the tile placed, the discs flipped and the new scores.
+   */
+  @Override
+  public MoveResult playMove(Coordinate coordinate) {
+    record.append("Played move ").append(coordinate).append("\n");
+    return m.playMove(coordinate);
+  }
+
   /**
    * The game is over if both players pass consecutively. Both players might be forced to pass if
    * there are no legal moves for either player.
@@ -218,6 +368,15 @@ public class MockModel implements ReversiModel {
     m.pass();
   }
 
+  /**
+   * Takes back the last move or pass, so the board is exactly as it was before it.
+   */
+  @Override
+  public void undo() {
+    record.append("Undid\n");
+    m.undo();
+  }
+
   /**
    * Tells the model to notify its subscribers that the game has started.
    */
@@ -226,4 +385,13 @@ public class MockModel implements ReversiModel {
     m.startGame();
     record.append("Game started");
   }
+
+  /**
+   * Ends the game where it stands.
+   */
+  @Override
+  public void endGame() {
+    record.append("Ended game\n");
+    m.endGame();
+  }
 }